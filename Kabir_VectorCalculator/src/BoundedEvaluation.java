@@ -0,0 +1,220 @@
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+class BoundedEvaluation {
+
+    private final int maxDenominator;
+    private double totalError;
+    private double maxError;
+    private int snapCount;
+
+    /**
+     Constructor for an evaluation mode that snaps every intermediate result to the closest fraction whose
+     denominator is at most maxDenominator, keeping the cost of each operation flat however long the chain.
+     Each operation is computed exactly before it is snapped, so no intermediate value can overflow.
+     @param maxDenominator the largest denominator allowed in any result
+     @throws IllegalArgumentException if maxDenominator is not positive
+     */
+    public BoundedEvaluation(int maxDenominator) throws IllegalArgumentException {
+        if (maxDenominator < 1) {
+            throw new IllegalArgumentException("Maximum denominator must be positive");
+        }
+        this.maxDenominator = maxDenominator;
+    }
+
+    public int getMaxDenominator() {
+        return maxDenominator;
+    }
+
+    /**
+     Returns the sum of the absolute errors introduced by every snap so far.
+     @return the total error introduced
+     */
+    public double getTotalError() {
+        return totalError;
+    }
+
+    /**
+     Returns the largest absolute error introduced by a single snap so far.
+     @return the largest single error
+     */
+    public double getMaxError() {
+        return maxError;
+    }
+
+    /**
+     Returns the number of values that had to be changed to respect the bound.
+     @return the number of inexact snaps
+     */
+    public int getSnapCount() {
+        return snapCount;
+    }
+
+    /**
+     Replaces an exact value by its best approximation under the bound and records the error introduced.
+     @param numerator the numerator of the exact value
+     @param denominator the non-zero denominator of the exact value
+     @return the best approximation of the value
+     @throws ArithmeticException if the approximation does not fit in a Fraction
+     */
+    private Fraction snap(BigInteger numerator, BigInteger denominator) {
+        Fraction approximation = Fraction.approximate(numerator, denominator, maxDenominator);
+        // |a/b - c/d| = |ad - cb| / bd, exact before the final division
+        BigInteger approximationDenominator = BigInteger.valueOf(approximation.getDenominator());
+        BigInteger difference = numerator.multiply(approximationDenominator)
+                .subtract(BigInteger.valueOf(approximation.getNumerator()).multiply(denominator)).abs();
+        if (difference.signum() != 0) {
+            double error = new BigDecimal(difference)
+                    .divide(new BigDecimal(denominator.multiply(approximationDenominator).abs()), MathContext.DECIMAL64)
+                    .doubleValue();
+            totalError += error;
+            maxError = Math.max(maxError, error);
+            snapCount++;
+        }
+        return approximation;
+    }
+
+    /**
+     Replaces a value by its best approximation under the bound and records the error introduced.
+     @param value the exact value
+     @return the value itself if its denominator is within the bound, otherwise its best approximation
+     */
+    public Fraction snap(Fraction value) {
+        if (value.getDenominator() <= maxDenominator) {
+            return value;
+        }
+        return snap(BigInteger.valueOf(value.getNumerator()), BigInteger.valueOf(value.getDenominator()));
+    }
+
+    /**
+     Snaps every component of a vector to the bound.
+     @param vector the exact vector
+     @return the vector with every denominator within the bound
+     */
+    public VectorType snap(VectorType vector) {
+        return vector.mapNonZero(this::snap);
+    }
+
+    /**
+     Computes a * b + sign * c * d exactly and snaps the result to the bound.
+     */
+    private Fraction snapSum(Fraction a, Fraction b, int sign, Fraction c, Fraction d) {
+        BigInteger left = BigInteger.valueOf(a.getNumerator()).multiply(BigInteger.valueOf(b.getNumerator()));
+        BigInteger leftDenominator = BigInteger.valueOf(a.getDenominator()).multiply(BigInteger.valueOf(b.getDenominator()));
+        BigInteger right = BigInteger.valueOf(c.getNumerator()).multiply(BigInteger.valueOf(d.getNumerator()));
+        BigInteger rightDenominator = BigInteger.valueOf(c.getDenominator()).multiply(BigInteger.valueOf(d.getDenominator()));
+        BigInteger numerator = left.multiply(rightDenominator).add(right.multiply(leftDenominator).multiply(BigInteger.valueOf(sign)));
+        return snap(numerator, leftDenominator.multiply(rightDenominator));
+    }
+
+    /**
+     Adds two vectors and snaps the result to the bound.
+     @throws IllegalArgumentException if the dimensions of the two vectors are different
+     @throws ArithmeticException if a snapped component does not fit in a Fraction
+     */
+    public VectorType add(VectorType a, VectorType b) throws IllegalArgumentException {
+        if (a.getDimensionCount() != b.getDimensionCount()) {
+            throw new IllegalArgumentException("Cannot add vectors of different dimensions");
+        }
+        Fraction one = new Fraction(1);
+        return a.zipWith(b, (x, y) -> snapSum(x, one, 1, y, one));
+    }
+
+    /**
+     Subtracts the second vector from the first and snaps the result to the bound.
+     @throws IllegalArgumentException if the dimensions of the two vectors are different
+     @throws ArithmeticException if a snapped component does not fit in a Fraction
+     */
+    public VectorType subtract(VectorType a, VectorType b) throws IllegalArgumentException {
+        if (a.getDimensionCount() != b.getDimensionCount()) {
+            throw new IllegalArgumentException("Cannot subtract vectors of different dimensions");
+        }
+        Fraction one = new Fraction(1);
+        return a.zipWith(b, (x, y) -> snapSum(x, one, -1, y, one));
+    }
+
+    /**
+     Multiplies a vector by a scalar and snaps the result to the bound.
+     @throws ArithmeticException if a snapped component does not fit in a Fraction
+     */
+    public VectorType distributeScalar(VectorType vector, Fraction scalar) {
+        Fraction zero = new Fraction(0);
+        return vector.mapNonZero(x -> snapSum(x, scalar, 1, zero, zero));
+    }
+
+    /**
+     Computes the cross product of two vectors and snaps the result to the bound.
+     @throws IllegalArgumentException if the vectors have different dimensions or have less than 3 dimensions
+     @throws ArithmeticException if a snapped component does not fit in a Fraction
+     */
+    public VectorType crossProduct(VectorType a, VectorType b) throws IllegalArgumentException {
+        int n = a.getDimensionCount();
+        if (n != b.getDimensionCount() || n < 3) {
+            throw new IllegalArgumentException("Vectors must have the same number of dimensions and dimensions greater or equal to 3");
+        }
+        Fraction[] result = new Fraction[n];
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            int k = (i + 2) % n;
+            result[j] = snapSum(a.getDimension(i), b.getDimension(k), -1, a.getDimension(k), b.getDimension(i));
+        }
+        return new VectorType(result);
+    }
+
+    /**
+     Computes the dot product of two vectors exactly and snaps the result to the bound.
+     @throws IllegalArgumentException if the dimensions of the two vectors are different
+     @throws ArithmeticException if the snapped result does not fit in a Fraction
+     */
+    public Fraction dotProduct(VectorType a, VectorType b) throws IllegalArgumentException {
+        BigInteger[] product = a.exactDotProduct(b);
+        return snap(product[0], product[1]);
+    }
+
+    /**
+     Returns a summary of the bound and the error introduced so far.
+     @return a string describing this evaluation mode
+     */
+    public String toString() {
+        return String.format("max denominator %d, %d snaps, total error %.3g, max error %.3g",
+                maxDenominator, snapCount, totalError, maxError);
+    }
+
+    /**
+     * test cases for bounded evaluation
+     */
+    private static void test() {
+        BoundedEvaluation bound = new BoundedEvaluation(100);
+        System.out.println(bound.snap(new Fraction(314159, 100000))); // 3 14/99
+        System.out.println(bound.getSnapCount()); // 1
+
+        // sum of 1/k for k = 1..200, whose exact denominators overflow int long before the end
+        VectorType total = VectorType.valueOf("(0, 0)");
+        for (int k = 1; k <= 200; k++) {
+            total = bound.add(total, new VectorType(new Fraction(1, k), new Fraction(-1, k)));
+        }
+        System.out.println(total); // (5 50/57, -5 50/57)
+        System.out.println(bound.getTotalError() < 1); // true
+
+        BoundedEvaluation exact = new BoundedEvaluation(12);
+        System.out.println(exact.dotProduct(VectorType.valueOf("(1/2, 1/3)"), VectorType.valueOf("(1/2, 1/4)"))); // 1/3
+        System.out.println(exact.getSnapCount()); // 0
+        System.out.println(exact.distributeScalar(VectorType.valueOf("(1, 2, 3)"), new Fraction(1, 7))); // (1/7, 2/7, 3/7)
+
+        // exact sums of values near the bound whose numerators and denominators do not fit in an int
+        BoundedEvaluation large = new BoundedEvaluation(46340);
+        System.out.println(large.add(VectorType.valueOf("(10 1/46337)"), VectorType.valueOf("(1/46339)"))); // (10 1/23169)
+        BoundedEvaluation thousand = new BoundedEvaluation(1000);
+        VectorType sum = VectorType.valueOf("(0)");
+        for (int k = 0; k < 3000; k++) {
+            sum = thousand.add(sum, new VectorType(new Fraction(1000, 997 - k % 5)));
+        }
+        System.out.println(sum); // (3015 73/903)
+        System.out.println(thousand.getMaxError() < 0.001); // true
+    }
+
+    public static void main(String[] args) {
+        test();
+    }
+}
@@ -1,5 +1,6 @@
+import java.math.BigInteger;
 
-class Fraction {
+class Fraction implements Comparable<Fraction> {
     private int numerator;
     private int denominator;
 
@@ -73,14 +74,18 @@ class Fraction {
     }
 
     private static int gcd(int a, int b){
-        int min = Math.min(Math.abs(a), Math.abs(b));
-        if (min == 0 || min == 1){
+        long x = Math.abs((long) a);
+        long y = Math.abs((long) b);
+        if (x == 0 || y == 0){
             return 1;
         }
-        while (Math.abs(a) % min != 0 || Math.abs(b) % min != 0){
-            min --;
+        // Euclid's algorithm, so the cost grows with the number of digits instead of the value
+        while (y != 0){
+            long r = x % y;
+            x = y;
+            y = r;
         }
-        return min;
+        return (int) x;
     }
 
     public int getNumerator() {
@@ -91,10 +96,20 @@ class Fraction {
         return denominator;
     }
 
+    /**
+     * Replaces the numerator as given, without reducing the fraction. A Fraction used as a key in a hash
+     * or sorted collection must not be changed while it is stored there.
+     * @param newNum the new numerator
+     */
     public void setNumerator(int newNum){
         numerator = newNum;
     }
 
+    /**
+     * Replaces the denominator as given, without reducing the fraction or moving its sign. A Fraction used
+     * as a key in a hash or sorted collection must not be changed while it is stored there.
+     * @param newDen the new denominator
+     */
     public void setDenominator(int newDen){
         denominator = newDen;
     }
@@ -103,6 +118,40 @@ class Fraction {
         return numerator == other.numerator && denominator == other.denominator;
     }
 
+    /**
+     * The constructors and arithmetic store fractions reduced with a positive denominator, so equal values
+     * have equal fields. The setters store their argument as given and can break this.
+     * @param other the object to compare with
+     * @return true if other is a Fraction with the same value
+     */
+    @Override
+    public boolean equals(Object other){
+        return other instanceof Fraction && equals((Fraction) other);
+    }
+
+    @Override
+    public int hashCode(){
+        return 31 * numerator + denominator;
+    }
+
+    /**
+     * Compares the values of two fractions without overflow. Values that are clearly apart are ordered by
+     * their double values, and close values are decided exactly by cross-multiplying in long arithmetic.
+     * @param other the fraction to compare with
+     * @return a negative number, zero or a positive number as this fraction is less than, equal to or
+     * greater than the other
+     */
+    @Override
+    public int compareTo(Fraction other){
+        double a = parseDouble();
+        double b = other.parseDouble();
+        // each double is within a relative 2^-52 of the exact value, far inside this margin
+        if (Math.abs(a - b) > 1e-12 * (Math.abs(a) + Math.abs(b))){
+            return a < b ? -1 : 1;
+        }
+        return Long.compare((long) numerator * other.denominator, (long) other.numerator * denominator);
+    }
+
     private int getWhole(){
         if (numerator < 0 && denominator < 0 || numerator > 0 && denominator > 0){
             return numerator / denominator;
@@ -138,6 +187,18 @@ class Fraction {
         return new Fraction(numerator * other.denominator + other.numerator * denominator, denominator * other.denominator);
     }
 
+    /**
+     * Adds two fractions without overflow, like Math.addExact does for int values.
+     * @param other the fraction to add
+     * @return the reduced sum
+     * @throws ArithmeticException if the reduced sum does not fit in int fields
+     */
+    public Fraction addExact(Fraction other) throws ArithmeticException{
+        BigInteger sumNumerator = BigInteger.valueOf(numerator).multiply(BigInteger.valueOf(other.denominator))
+                .add(BigInteger.valueOf(other.numerator).multiply(BigInteger.valueOf(denominator)));
+        return valueOf(sumNumerator, BigInteger.valueOf(denominator).multiply(BigInteger.valueOf(other.denominator)));
+    }
+
     public Fraction subtract(Fraction other){
         return this.add(new Fraction(-1 * other.numerator, other.denominator));
     }
@@ -168,6 +229,28 @@ class Fraction {
         }
     }
 
+    /**
+     * Creates a reduced Fraction from arbitrary precision numerator and denominator values.
+     * @param numerator Represents numerator - a BigInteger.
+     * @param denominator Represents denominator - a BigInteger.
+     * @return the reduced Fraction
+     * @throws IllegalArgumentException if the denominator is zero
+     * @throws ArithmeticException if the reduced value does not fit in int fields
+     */
+    public static Fraction valueOf(BigInteger numerator, BigInteger denominator) throws IllegalArgumentException{
+        if (denominator.signum() == 0){
+            throw new IllegalArgumentException("Denominator cannot be zero");
+        }
+        BigInteger gcd = numerator.gcd(denominator);
+        if (gcd.signum() == 0){
+            gcd = BigInteger.ONE;
+        }
+        if (denominator.signum() < 0){
+            gcd = gcd.negate();
+        }
+        return new Fraction(numerator.divide(gcd).intValueExact(), denominator.divide(gcd).intValueExact());
+    }
+
     private static String wholeNumberPattern(){
         return "-{0,1}\\d+";
     }
@@ -205,6 +288,79 @@ class Fraction {
         return Double.valueOf(numerator) / Double.valueOf(denominator);
     }
 
+    /**
+     * Finds the closest fraction to this one whose denominator is at most maxDenominator, using the
+     * convergents and semiconvergents of the continued fraction expansion.
+     * @param maxDenominator the largest denominator allowed - a positive integer.
+     * @return this fraction if its denominator is small enough, otherwise the best approximation
+     * @throws IllegalArgumentException if maxDenominator is not positive
+     */
+    public Fraction approximate(int maxDenominator) throws IllegalArgumentException{
+        if (maxDenominator < 1){
+            throw new IllegalArgumentException("Maximum denominator must be positive");
+        }
+        if (denominator <= maxDenominator){
+            return this;
+        }
+        return approximate(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator), maxDenominator);
+    }
+
+    /**
+     * Finds the closest fraction to an arbitrary precision value whose denominator is at most
+     * maxDenominator, so that exact intermediate results can be bounded before they are stored in int fields.
+     * @param numerator Represents numerator - a BigInteger.
+     * @param denominator Represents denominator - a BigInteger.
+     * @param maxDenominator the largest denominator allowed - a positive integer.
+     * @return the value itself if its reduced denominator is small enough, otherwise the best approximation
+     * @throws IllegalArgumentException if the denominator is zero or maxDenominator is not positive
+     * @throws ArithmeticException if the numerator of the result does not fit in an int
+     */
+    public static Fraction approximate(BigInteger numerator, BigInteger denominator, int maxDenominator) throws IllegalArgumentException{
+        if (maxDenominator < 1){
+            throw new IllegalArgumentException("Maximum denominator must be positive");
+        }
+        if (denominator.signum() == 0){
+            throw new IllegalArgumentException("Denominator cannot be zero");
+        }
+        BigInteger gcd = numerator.gcd(denominator);
+        if (denominator.signum() < 0){
+            gcd = gcd.negate();
+        }
+        BigInteger num = numerator.divide(gcd).abs();
+        BigInteger den = denominator.divide(gcd);
+        BigInteger max = BigInteger.valueOf(maxDenominator);
+        if (den.compareTo(max) <= 0){
+            return valueOf(numerator, denominator);
+        }
+        BigInteger n = num;
+        BigInteger d = den;
+        // convergents p0/q0 and p1/q1 of the continued fraction of |value|
+        BigInteger p0 = BigInteger.ZERO, q0 = BigInteger.ONE, p1 = BigInteger.ONE, q1 = BigInteger.ZERO;
+        while (true){
+            BigInteger[] quotient = n.divideAndRemainder(d);
+            BigInteger q2 = q0.add(quotient[0].multiply(q1));
+            if (q2.compareTo(max) > 0){
+                break;
+            }
+            BigInteger p2 = p0.add(quotient[0].multiply(p1));
+            p0 = p1;
+            q0 = q1;
+            p1 = p2;
+            q1 = q2;
+            n = d;
+            d = quotient[1];
+        }
+        // the best semiconvergent that still fits competes with the last convergent
+        BigInteger k = max.subtract(q0).divide(q1);
+        BigInteger semiNum = p0.add(k.multiply(p1));
+        BigInteger semiDen = q0.add(k.multiply(q1));
+        BigInteger semiError = num.multiply(semiDen).subtract(den.multiply(semiNum)).abs().multiply(q1);
+        BigInteger convergentError = num.multiply(q1).subtract(den.multiply(p1)).abs().multiply(semiDen);
+        boolean useSemi = semiError.compareTo(convergentError) < 0;
+        BigInteger resultNum = useSemi ? semiNum : p1;
+        return valueOf(numerator.signum() * denominator.signum() < 0 ? resultNum.negate() : resultNum, useSemi ? semiDen : q1);
+    }
+
     private static void test(){
         System.out.println(Fraction.valueOf("1/2")); // 1/2
         System.out.println(Fraction.valueOf("10/-12")); // -5/6
@@ -237,6 +393,18 @@ class Fraction {
         System.out.println(new Fraction(-1).subtract(new Fraction(0))); // -1
         System.out.println(new Fraction(-1).multiply(new Fraction(0))); // 0
         System.out.println(new Fraction(-1).divide(new Fraction(1))); // -1
+
+        System.out.println(new Fraction(314159, 100000).approximate(1000)); // 3 16/113
+        System.out.println(new Fraction(-314159, 100000).approximate(7)); // -3 1/7
+        System.out.println(new Fraction(1, 3).approximate(2)); // 1/2
+        System.out.println(new Fraction(5, 1000).approximate(10)); // 0
+        System.out.println(new Fraction(2, 3).approximate(3)); // 2/3
+
+        System.out.println(new Fraction(1, 3).compareTo(new Fraction(2, 6))); // 0
+        System.out.println(new Fraction(-1, 2).compareTo(new Fraction(1, 3))); // -1
+        System.out.println(new Fraction(2147483646, 2147483647).compareTo(new Fraction(2147483645, 2147483646))); // 1
+        System.out.println(new Fraction(2, 4).equals((Object) new Fraction(1, 2))); // true
+        System.out.println(new Fraction(2, 4).hashCode() == new Fraction(1, 2).hashCode()); // true
     }
       
  
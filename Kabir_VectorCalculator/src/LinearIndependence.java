@@ -0,0 +1,312 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+
+class LinearIndependence {
+
+    /**
+     Number of primes the elimination first runs modulo. A full rank needs no more; otherwise more primes
+     are added until the rank is proven exact.
+     */
+    static final int PRIME_COUNT = 3;
+
+    private static PrimeField[] fields = largestPrimeFields(PRIME_COUNT);
+
+    /**
+     Arithmetic modulo an odd prime below 2^63, with values kept in Montgomery form (x * 2^64 mod p)
+     so that products reduce with two multiplications and no division.
+     */
+    private static final class PrimeField {
+        private final long p;
+        private final long pInverse;
+        private final long one;
+        private final long rSquared;
+        private final BigInteger modulus;
+
+        PrimeField(long p) {
+            this.p = p;
+            this.modulus = BigInteger.valueOf(p);
+            // Newton iteration for p^-1 mod 2^64, each step doubles the number of correct bits
+            long inverse = p;
+            for (int i = 0; i < 5; i++) {
+                inverse *= 2 - p * inverse;
+            }
+            this.pInverse = inverse;
+            BigInteger r = BigInteger.ONE.shiftLeft(64);
+            this.one = r.mod(modulus).longValue();
+            this.rSquared = r.multiply(r).mod(modulus).longValue();
+        }
+
+        long multiply(long a, long b) {
+            long high = Math.multiplyHigh(a, b);
+            long m = a * b * pInverse;
+            long mpHigh = Math.multiplyHigh(m, p) + ((m >> 63) & p);
+            long result = high - mpHigh;
+            return result < 0 ? result + p : result;
+        }
+
+        long subtract(long a, long b) {
+            long result = a - b;
+            return result < 0 ? result + p : result;
+        }
+
+        long inverse(long a) {
+            long result = one;
+            long base = a;
+            for (long e = p - 2; e > 0; e >>= 1) {
+                if ((e & 1) == 1) {
+                    result = multiply(result, base);
+                }
+                base = multiply(base, base);
+            }
+            return result;
+        }
+
+        long fromInteger(BigInteger value) {
+            return multiply(value.mod(modulus).longValue(), rSquared);
+        }
+    }
+
+    /**
+     Finds the largest primes below 2^63.
+     @param count the number of primes to find
+     @return a field for each prime
+     */
+    private static PrimeField[] largestPrimeFields(int count) {
+        PrimeField[] fields = new PrimeField[count];
+        long candidate = Long.MAX_VALUE;
+        for (int found = 0; found < count; candidate -= 2) {
+            if (BigInteger.valueOf(candidate).isProbablePrime(64)) {
+                fields[found++] = new PrimeField(candidate);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     Returns at least the given number of the largest primes below 2^63, growing the shared list as needed.
+     @param count the number of primes required
+     @return the fields for the primes, largest first
+     */
+    private static synchronized PrimeField[] primeFields(int count) {
+        if (fields.length < count) {
+            fields = largestPrimeFields(Math.max(count, 2 * fields.length));
+        }
+        return fields;
+    }
+
+    /**
+     Clears the denominators of every vector, which leaves the rank and any linear relation unchanged.
+     @param vectors the vectors to scale
+     @return one integer row per vector
+     @throws IllegalArgumentException if the vectors have different numbers of dimensions
+     */
+    private static BigInteger[][] toIntegerRows(VectorType[] vectors) {
+        int n = vectors[0].getDimensionCount();
+        BigInteger[][] rows = new BigInteger[vectors.length][];
+        for (int i = 0; i < vectors.length; i++) {
+            if (vectors[i].getDimensionCount() != n) {
+                throw new IllegalArgumentException("All vectors must have the same number of dimensions");
+            }
+            Fraction[] components = new Fraction[n];
+            for (int j = 0; j < n; j++) {
+                components[j] = vectors[i].getDimension(j);
+            }
+            rows[i] = LinearSystemSolver.scaleRow(components);
+        }
+        return rows;
+    }
+
+    /**
+     Row reduces the integer rows modulo the field's prime on primitive long arrays.
+     @param field the prime field to work in
+     @param rows the integer rows
+     @return the sorted indices of the rows that produced pivots
+     */
+    private static int[] eliminate(PrimeField field, BigInteger[][] rows) {
+        int m = rows.length;
+        int n = rows[0].length;
+        long[][] matrix = new long[m][n];
+        int[] order = new int[m];
+        for (int i = 0; i < m; i++) {
+            order[i] = i;
+            for (int j = 0; j < n; j++) {
+                matrix[i][j] = field.fromInteger(rows[i][j]);
+            }
+        }
+
+        int rank = 0;
+        for (int c = 0; c < n && rank < m; c++) {
+            int pivotRow = rank;
+            while (pivotRow < m && matrix[pivotRow][c] == 0) {
+                pivotRow++;
+            }
+            if (pivotRow == m) {
+                continue;
+            }
+            long[] tmp = matrix[pivotRow];
+            matrix[pivotRow] = matrix[rank];
+            matrix[rank] = tmp;
+            int tmpIndex = order[pivotRow];
+            order[pivotRow] = order[rank];
+            order[rank] = tmpIndex;
+
+            long[] pivot = matrix[rank];
+            long scale = field.inverse(pivot[c]);
+            for (int j = c; j < n; j++) {
+                pivot[j] = field.multiply(pivot[j], scale);
+            }
+            for (int i = rank + 1; i < m; i++) {
+                long[] row = matrix[i];
+                long factor = row[c];
+                if (factor == 0) {
+                    continue;
+                }
+                for (int j = c; j < n; j++) {
+                    row[j] = field.subtract(row[j], field.multiply(factor, pivot[j]));
+                }
+            }
+            rank++;
+        }
+
+        int[] basisRows = Arrays.copyOf(order, rank);
+        Arrays.sort(basisRows);
+        return basisRows;
+    }
+
+    /**
+     Computes an upper bound on log2 of the Hadamard bound of every square minor with the given number
+     of rows, the product of the largest row norms.
+     @param rows the integer rows
+     @param size the number of rows in the minor
+     @return the number of bits any such minor can need
+     */
+    private static double minorBits(BigInteger[][] rows, int size) {
+        double[] normBits = new double[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            BigInteger squares = BigInteger.ZERO;
+            for (BigInteger value : rows[i]) {
+                squares = squares.add(value.multiply(value));
+            }
+            normBits[i] = squares.bitLength() / 2.0;
+        }
+        Arrays.sort(normBits);
+        double bits = 0;
+        for (int i = 0; i < size; i++) {
+            bits += normBits[rows.length - 1 - i];
+        }
+        return bits;
+    }
+
+    /**
+     Finds the indices of a maximal linearly independent subset of the vectors.
+     Elimination runs modulo several 63-bit primes in parallel; the prime giving the largest rank picks
+     the basis. Rows that are independent modulo a prime are independent over the rationals. If the rank
+     r is below both dimensions of the matrix, primes are added until their product exceeds the Hadamard
+     bound of every minor of size r + 1; all those minors vanish modulo each prime, so they are exactly
+     zero and the rank is exact.
+     @param vectors the vectors to inspect
+     @return the sorted indices of the basis vectors
+     @throws IllegalArgumentException if the vectors have different numbers of dimensions
+     */
+    private static int[] basisIndices(VectorType[] vectors) {
+        if (vectors.length == 0) {
+            return new int[0];
+        }
+        BigInteger[][] rows = toIntegerRows(vectors);
+        int[] best = new int[0];
+        int used = 0;
+        int needed = PRIME_COUNT;
+        while (used < needed) {
+            int[] found = Arrays.stream(primeFields(needed), used, needed).parallel()
+                    .map(field -> eliminate(field, rows))
+                    .reduce((a, b) -> b.length > a.length ? b : a)
+                    .get();
+            if (found.length > best.length) {
+                best = found;
+            }
+            if (best.length == rows.length || best.length == rows[0].length) {
+                return best;
+            }
+            used = needed;
+            // every prime is above 2^62
+            needed = Math.max(needed, (int) (minorBits(rows, best.length + 1) / 62) + 1);
+        }
+        return best;
+    }
+
+    /**
+     Computes the dimension of the span of the given vectors.
+     @param vectors the vectors to inspect
+     @return the rank of the vectors
+     @throws IllegalArgumentException if the vectors have different numbers of dimensions
+     */
+    public static int rank(VectorType... vectors) throws IllegalArgumentException {
+        return basisIndices(vectors).length;
+    }
+
+    /**
+     Checks whether the given vectors are linearly independent.
+     @param vectors the vectors to inspect
+     @return true if no vector is a linear combination of the others
+     @throws IllegalArgumentException if the vectors have different numbers of dimensions
+     */
+    public static boolean isLinearlyIndependent(VectorType... vectors) throws IllegalArgumentException {
+        if (vectors.length > 0 && vectors.length > vectors[0].getDimensionCount()) {
+            toIntegerRows(vectors);
+            return false;
+        }
+        return rank(vectors) == vectors.length;
+    }
+
+    /**
+     Extracts a basis for the span of the given vectors from among the vectors themselves.
+     @param vectors the vectors to inspect
+     @return a linearly independent subset of the vectors, in their original order, with the same span
+     @throws IllegalArgumentException if the vectors have different numbers of dimensions
+     */
+    public static VectorType[] basis(VectorType... vectors) throws IllegalArgumentException {
+        int[] indices = basisIndices(vectors);
+        VectorType[] basis = new VectorType[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            basis[i] = vectors[indices[i]];
+        }
+        return basis;
+    }
+
+    /**
+     * test cases for rank and independence
+     */
+    private static void test() {
+        VectorType a = VectorType.valueOf("(1, 2, 3)");
+        VectorType b = VectorType.valueOf("(2, 4, 6)");
+        VectorType c = VectorType.valueOf("(0, 1, 1)");
+        VectorType d = VectorType.valueOf("(1/2, 1/3, -1/4)");
+        System.out.println(rank(a, b, c)); // 2
+        System.out.println(isLinearlyIndependent(a, b)); // false
+        System.out.println(isLinearlyIndependent(a, c, d)); // true
+        System.out.println(isLinearlyIndependent(a, b, c, d)); // false
+        System.out.println(Arrays.toString(basis(b, a, c))); // [(2, 4, 6), (0, 1, 1)]
+        System.out.println(rank(VectorType.valueOf("(0, 0)"), VectorType.valueOf("(0, 0)"))); // 0
+        System.out.println(rank(a.add(c), a.subtract(c).distributeScalar(new Fraction(2, 3)), c)); // 2
+
+        // many vectors drawn from a 3 dimensional subspace of a 6 dimensional space
+        VectorType[] generators = {
+                VectorType.valueOf("(1, 0, 2, -1, 1/2, 3)"),
+                VectorType.valueOf("(0, 1, -1, 2/3, 0, 1)"),
+                VectorType.valueOf("(1, 1, 1, 1, 1, -1)")
+        };
+        VectorType[] many = new VectorType[2000];
+        for (int i = 0; i < many.length; i++) {
+            many[i] = generators[0].distributeScalar(new Fraction(i % 7 - 3, 1 + i % 5))
+                    .add(generators[1].distributeScalar(new Fraction(i % 11 - 5, 1 + i % 3)))
+                    .add(generators[2].distributeScalar(new Fraction(i % 4 - 2)));
+        }
+        System.out.println(rank(many)); // 3
+        System.out.println(rank(LinearSystemSolver.inverse(
+                VectorType.valueOf("(2, 1, -1)"), VectorType.valueOf("(-3, -1, 2)"), VectorType.valueOf("(-2, 1, 2)")))); // 3
+    }
+
+    public static void main(String[] args) {
+        test();
+    }
+}
@@ -0,0 +1,315 @@
+import java.math.BigInteger;
+import java.util.stream.IntStream;
+
+class LinearSystemSolver {
+
+    /**
+     Number of matrix entries above which the row updates of each elimination step run in parallel.
+     */
+    static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     Scales every row of the matrix by the least common multiple of its denominators so that each row
+     becomes an integer row with the same solution set. Optional extra columns are appended to the right
+     of each row, scaled by the same factor.
+     @param rows the rows of the matrix
+     @param extra the columns to append to each row, indexed [row][column], or null for none
+     @return the integer-scaled augmented matrix
+     @throws IllegalArgumentException if the rows do not all have the same number of dimensions
+     */
+    private static BigInteger[][] toIntegerRows(VectorType[] rows, Fraction[][] extra) {
+        if (rows.length == 0) {
+            throw new IllegalArgumentException("System must contain at least one row");
+        }
+        int n = rows[0].getDimensionCount();
+        int extraColumns = extra == null ? 0 : extra[0].length;
+        BigInteger[][] matrix = new BigInteger[rows.length][n + extraColumns];
+        for (int i = 0; i < rows.length; i++) {
+            if (rows[i].getDimensionCount() != n) {
+                throw new IllegalArgumentException("All rows must have the same number of dimensions");
+            }
+            Fraction[] row = new Fraction[n + extraColumns];
+            for (int j = 0; j < n; j++) {
+                row[j] = rows[i].getDimension(j);
+            }
+            for (int j = 0; j < extraColumns; j++) {
+                row[n + j] = extra[i][j];
+            }
+            matrix[i] = scaleRow(row);
+        }
+        return matrix;
+    }
+
+    /**
+     Multiplies a row of Fractions by the least common multiple of their denominators.
+     @param row the row to scale
+     @return the scaled row as integers
+     */
+    static BigInteger[] scaleRow(Fraction[] row) {
+        BigInteger lcm = BigInteger.ONE;
+        for (Fraction value : row) {
+            BigInteger den = BigInteger.valueOf(value.getDenominator());
+            lcm = lcm.divide(lcm.gcd(den)).multiply(den);
+        }
+        BigInteger[] scaled = new BigInteger[row.length];
+        for (int j = 0; j < row.length; j++) {
+            BigInteger den = BigInteger.valueOf(row[j].getDenominator());
+            scaled[j] = BigInteger.valueOf(row[j].getNumerator()).multiply(lcm.divide(den));
+        }
+        return scaled;
+    }
+
+    /**
+     Returns the least common multiple of the denominators in a vector.
+     @param vector the vector to inspect
+     @return the least common multiple of its denominators
+     */
+    private static BigInteger denominatorLcm(VectorType vector) {
+        BigInteger lcm = BigInteger.ONE;
+        for (int j = 0; j < vector.getDimensionCount(); j++) {
+            BigInteger den = BigInteger.valueOf(vector.getDimension(j).getDenominator());
+            lcm = lcm.divide(lcm.gcd(den)).multiply(den);
+        }
+        return lcm;
+    }
+
+    /**
+     Swaps two rows of a matrix in place.
+     */
+    private static void swapRows(BigInteger[][] matrix, int a, int b) {
+        BigInteger[] tmp = matrix[a];
+        matrix[a] = matrix[b];
+        matrix[b] = tmp;
+    }
+
+    /**
+     Runs fraction-free Bareiss elimination over the first pivotColumns columns of an integer matrix.
+     Every update has the form (pivot * a[i][j] - a[i][c] * a[r][j]) / previousPivot, where the division
+     is exact, so entries stay bounded by minors of the input instead of growing with each step.
+     When reduce is true the rows above each pivot are cleared as well (fraction-free Gauss-Jordan),
+     leaving every pivot equal to the last pivot found.
+     Row updates within a step are independent and run in parallel for large matrices.
+     @param matrix the integer matrix, modified in place
+     @param pivotColumns the number of leading columns to eliminate
+     @param reduce whether to clear entries above the pivots too
+     @return an array holding the column of each pivot row, followed by the number of row swaps in the last slot
+     */
+    static int[] eliminate(BigInteger[][] matrix, int pivotColumns, boolean reduce) {
+        int m = matrix.length;
+        int width = m == 0 ? 0 : matrix[0].length;
+        boolean parallel = (long) m * width >= PARALLEL_THRESHOLD;
+        int[] pivots = new int[Math.min(m, pivotColumns) + 1];
+        int swaps = 0;
+        int rank = 0;
+        BigInteger previous = BigInteger.ONE;
+
+        for (int c = 0; c < pivotColumns && rank < m; c++) {
+            int pivotRow = -1;
+            for (int i = rank; i < m; i++) {
+                if (matrix[i][c].signum() != 0) {
+                    pivotRow = i;
+                    break;
+                }
+            }
+            if (pivotRow == -1) {
+                continue;
+            }
+            if (pivotRow != rank) {
+                swapRows(matrix, pivotRow, rank);
+                swaps++;
+            }
+
+            final int r = rank;
+            final int col = c;
+            final BigInteger prev = previous;
+            final BigInteger[] pivotRowValues = matrix[r];
+            final BigInteger pivot = pivotRowValues[col];
+            IntStream rowsToUpdate = IntStream.range(reduce ? 0 : r + 1, m).filter(i -> i != r);
+            if (parallel) {
+                rowsToUpdate = rowsToUpdate.parallel();
+            }
+            rowsToUpdate.forEach(i -> {
+                BigInteger[] row = matrix[i];
+                BigInteger factor = row[col];
+                int start = reduce && i < r ? 0 : col;
+                for (int j = start; j < width; j++) {
+                    if (j == col) {
+                        continue;
+                    }
+                    row[j] = pivot.multiply(row[j]).subtract(factor.multiply(pivotRowValues[j])).divide(prev);
+                }
+                row[col] = BigInteger.ZERO;
+            });
+
+            pivots[rank] = c;
+            rank++;
+            previous = pivot;
+        }
+
+        int[] result = new int[rank + 1];
+        System.arraycopy(pivots, 0, result, 0, rank);
+        result[rank] = swaps;
+        return result;
+    }
+
+    /**
+     Computes the rank of the span of the given vectors exactly.
+     @param rows the vectors to inspect
+     @return the number of linearly independent vectors among the rows
+     @throws IllegalArgumentException if the vectors have different numbers of dimensions
+     */
+    public static int rank(VectorType... rows) throws IllegalArgumentException {
+        BigInteger[][] matrix = toIntegerRows(rows, null);
+        return eliminate(matrix, matrix[0].length, false).length - 1;
+    }
+
+    /**
+     Computes the determinant of a square matrix whose rows are the given vectors.
+     The last Bareiss pivot is the determinant of the integer-scaled matrix, which is then divided by the
+     product of the row scale factors.
+     @param rows the rows of the matrix
+     @return the exact determinant
+     @throws IllegalArgumentException if the matrix is not square
+     @throws ArithmeticException if the determinant does not fit in a Fraction
+     */
+    public static Fraction determinant(VectorType... rows) throws IllegalArgumentException {
+        int n = rows.length;
+        if (n == 0 || rows[0].getDimensionCount() != n) {
+            throw new IllegalArgumentException("Determinant requires a square matrix");
+        }
+        BigInteger[][] matrix = toIntegerRows(rows, null);
+        int[] pivots = eliminate(matrix, n, false);
+        if (pivots.length - 1 < n) {
+            return new Fraction(0);
+        }
+        BigInteger det = matrix[n - 1][n - 1];
+        if (pivots[n] % 2 == 1) {
+            det = det.negate();
+        }
+        BigInteger scale = BigInteger.ONE;
+        for (VectorType row : rows) {
+            scale = scale.multiply(denominatorLcm(row));
+        }
+        return Fraction.valueOf(det, scale);
+    }
+
+    /**
+     Solves the system A x = b where the rows of A are the given vectors.
+     The augmented integer matrix is reduced with fraction-free Gauss-Jordan elimination so that every
+     pivot equals the same value d and the last column holds d * x; rationals are only formed at the end.
+     @param rows the coefficient rows of the system
+     @param constants the right hand side, one component per row
+     @return the unique solution x
+     @throws IllegalArgumentException if the system is inconsistent, singular, or malformed
+     @throws ArithmeticException if a solution component does not fit in a Fraction
+     */
+    public static VectorType solve(VectorType[] rows, VectorType constants) throws IllegalArgumentException {
+        if (rows.length != constants.getDimensionCount()) {
+            throw new IllegalArgumentException("Number of constants must match the number of rows");
+        }
+        Fraction[][] extra = new Fraction[rows.length][1];
+        for (int i = 0; i < rows.length; i++) {
+            extra[i][0] = constants.getDimension(i);
+        }
+        BigInteger[][] matrix = toIntegerRows(rows, extra);
+        int n = matrix[0].length - 1;
+        int[] pivots = eliminate(matrix, n, true);
+        int rank = pivots.length - 1;
+
+        // a zero row with a non-zero constant reads 0 = c
+        for (int i = rank; i < matrix.length; i++) {
+            if (matrix[i][n].signum() != 0) {
+                throw new IllegalArgumentException("System is inconsistent");
+            }
+        }
+        if (rank < n) {
+            throw new IllegalArgumentException("System is singular");
+        }
+
+        Fraction[] solution = new Fraction[n];
+        for (int i = 0; i < n; i++) {
+            solution[i] = Fraction.valueOf(matrix[i][n], matrix[i][i]);
+        }
+        return new VectorType(solution);
+    }
+
+    /**
+     Computes the inverse of a square matrix whose rows are the given vectors.
+     The matrix is augmented with the identity and reduced with fraction-free Gauss-Jordan elimination.
+     Scaling row i of [A | I] by its denominator multiple keeps A^-1 as the solution of the scaled system.
+     @param rows the rows of the matrix
+     @return the rows of the inverse matrix
+     @throws IllegalArgumentException if the matrix is not square or is singular
+     @throws ArithmeticException if an entry of the inverse does not fit in a Fraction
+     */
+    public static VectorType[] inverse(VectorType... rows) throws IllegalArgumentException {
+        int n = rows.length;
+        if (n == 0 || rows[0].getDimensionCount() != n) {
+            throw new IllegalArgumentException("Inverse requires a square matrix");
+        }
+        Fraction[][] identity = new Fraction[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                identity[i][j] = new Fraction(i == j ? 1 : 0);
+            }
+        }
+        BigInteger[][] matrix = toIntegerRows(rows, identity);
+        if (eliminate(matrix, n, true).length - 1 < n) {
+            throw new IllegalArgumentException("System is singular");
+        }
+
+        VectorType[] result = new VectorType[n];
+        for (int i = 0; i < n; i++) {
+            Fraction[] row = new Fraction[n];
+            for (int j = 0; j < n; j++) {
+                row[j] = Fraction.valueOf(matrix[i][n + j], matrix[i][i]);
+            }
+            result[i] = new VectorType(row);
+        }
+        return result;
+    }
+
+    /**
+     * test cases for the solver
+     */
+    private static void test() {
+        VectorType[] a = {
+                VectorType.valueOf("(2, 1, -1)"),
+                VectorType.valueOf("(-3, -1, 2)"),
+                VectorType.valueOf("(-2, 1, 2)")
+        };
+        System.out.println(solve(a, VectorType.valueOf("(8, -11, -3)"))); // (2, 3, -1)
+        System.out.println(determinant(a)); // -1
+        VectorType[] inverse = inverse(a);
+        System.out.println(inverse[0] + " " + inverse[1] + " " + inverse[2]); // (4, 3, -1) (-2, -2, 1) (5, 4, -1)
+
+        VectorType[] b = {
+                VectorType.valueOf("(1/2, 1/3)"),
+                VectorType.valueOf("(1/4, -2/3)")
+        };
+        System.out.println(solve(b, VectorType.valueOf("(1, 1/2)"))); // (2, 0)
+        System.out.println(determinant(b)); // -5/12
+        System.out.println(determinant(VectorType.valueOf("(0, 1)"), VectorType.valueOf("(1, 0)"))); // -1
+        System.out.println(rank(VectorType.valueOf("(1, 2, 3)"), VectorType.valueOf("(2, 4, 6)"), VectorType.valueOf("(0, 1, 1)"))); // 2
+
+        VectorType[] singular = {VectorType.valueOf("(1, 2)"), VectorType.valueOf("(2, 4)")};
+        try {
+            solve(singular, VectorType.valueOf("(3, 6)"));
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage()); // System is singular
+        }
+        try {
+            solve(singular, VectorType.valueOf("(3, 7)"));
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage()); // System is inconsistent
+        }
+
+        // overdetermined but consistent
+        VectorType[] tall = {VectorType.valueOf("(1, 1)"), VectorType.valueOf("(1, -1)"), VectorType.valueOf("(2, 0)")};
+        System.out.println(solve(tall, VectorType.valueOf("(3, 1, 4)"))); // (2, 1)
+    }
+
+    public static void main(String[] args) {
+        test();
+    }
+}
@@ -1,26 +1,130 @@
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 class VectorParser {
 
+    /**
+     Number of terms below which a partial sum is computed serially instead of being split further.
+     */
+    static final int PARALLEL_CHUNK_SIZE = 256;
+
+    /**
+     A vector sum whose components are kept as reduced BigInteger fractions, so that no partial sum can
+     overflow whatever order the terms are added in.
+     */
+    private static final class ExactSum {
+        private final BigInteger[] numerators;
+        private final BigInteger[] denominators;
+
+        ExactSum(int n) {
+            numerators = new BigInteger[n];
+            denominators = new BigInteger[n];
+            Arrays.fill(numerators, BigInteger.ZERO);
+            Arrays.fill(denominators, BigInteger.ONE);
+        }
+
+        void add(VectorTerm term) {
+            BigInteger coefficientNumerator = BigInteger.valueOf(term.getCoefficient().getNumerator());
+            BigInteger coefficientDenominator = BigInteger.valueOf(term.getCoefficient().getDenominator());
+            term.getVector().forEachNonZero((value, i) -> add(i,
+                    coefficientNumerator.multiply(BigInteger.valueOf(value.getNumerator())),
+                    coefficientDenominator.multiply(BigInteger.valueOf(value.getDenominator()))));
+        }
+
+        ExactSum add(ExactSum other) {
+            for (int i = 0; i < numerators.length; i++) {
+                if (other.numerators[i].signum() != 0) {
+                    add(i, other.numerators[i], other.denominators[i]);
+                }
+            }
+            return this;
+        }
+
+        private void add(int i, BigInteger numerator, BigInteger denominator) {
+            BigInteger sumNumerator = numerators[i].multiply(denominator).add(numerator.multiply(denominators[i]));
+            BigInteger sumDenominator = denominators[i].multiply(denominator);
+            BigInteger gcd = sumNumerator.gcd(sumDenominator);
+            numerators[i] = sumNumerator.divide(gcd);
+            denominators[i] = sumDenominator.divide(gcd);
+        }
+
+        /**
+         Converts the exact sum to a vector.
+         @throws ArithmeticException if a component does not fit in a Fraction
+         */
+        VectorType toVector() {
+            Fraction[] components = new Fraction[numerators.length];
+            for (int i = 0; i < components.length; i++) {
+                components[i] = Fraction.valueOf(numerators[i], denominators[i]);
+            }
+            return new VectorType(components);
+        }
+    }
+
+    /**
+     Computes the exact sum of a range of terms by splitting it in half until each half is small enough
+     to sum serially. Partial sums are combined pairwise, forming a balanced tree of additions.
+     */
+    private static final class PartialSum extends RecursiveTask<ExactSum> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<VectorTerm> terms;
+        private final int n;
+
+        PartialSum(List<VectorTerm> terms, int n) {
+            this.terms = terms;
+            this.n = n;
+        }
+
+        @Override
+        protected ExactSum compute() {
+            if (terms.size() <= PARALLEL_CHUNK_SIZE) {
+                ExactSum sum = new ExactSum(n);
+                for (VectorTerm term : terms) {
+                    sum.add(term);
+                }
+                return sum;
+            }
+            int middle = terms.size() / 2;
+            PartialSum left = new PartialSum(terms.subList(0, middle), n);
+            left.fork();
+            ExactSum right = new PartialSum(terms.subList(middle, terms.size()), n).compute();
+            return left.join().add(right);
+        }
+    }
+
     /**
      Counts the number of dimensions of vectors in a string expression.
-     Vectors must be enclosed in parentheses and separated by commas.
+     Vectors must be enclosed in parentheses and separated by commas. A sparse vector "(n; i: a, ...)"
+     states its number of dimensions n directly.
      @param expression a string expression containing vectors
      @return the number of dimensions of vectors in the expression
      @throws IllegalArgumentException if the expression has less than 1 dimension
      **/
     private static int countVectorDimensions(String expression) {
         int numDimensions = 0;
-        Pattern pattern = Pattern.compile("\\((.*?)\\)"); // Matches anything in parentheses
+        Pattern pattern = Pattern.compile("\\(([^()]*)\\)"); // Matches anything in innermost parentheses
+        Pattern sparse = Pattern.compile("(\\d+);.*"); // Matches the dimension of a sparse vector
         Matcher matcher = pattern.matcher(expression);
         while (matcher.find()) {
             String vector = matcher.group(1);
-            String[] components = vector.split(",\\s*"); // Split components by comma
+            Matcher sparseMatcher = sparse.matcher(vector);
+            int count = sparseMatcher.matches()
+                    ? Integer.valueOf(sparseMatcher.group(1))
+                    : vector.split(",\\s*").length; // Split components by comma
             if (numDimensions == 0) { // Set the number of dimensions to the first vector's number of components
-                numDimensions = components.length;
-            } else if (numDimensions != components.length) { // Check if subsequent vectors have the same number of components
+                numDimensions = count;
+            } else if (numDimensions != count) { // Check if subsequent vectors have the same number of components
                 throw new IllegalArgumentException("All vectors must have the same number of components");
             }
         }
@@ -31,110 +135,208 @@ class VectorParser {
     }
 
     /**
-     Returns a regular expression string representing the operators supported in the vector expressions.
-     The returned string includes the plus sign and the minus sign, separated by spaces.
-     @return a regular expression string representing the operators supported in the vector expressions
+     Parses a term in an equation into its vector literal and the product of all scalar multiples
+     applied to it, without distributing the scalar yet.
+     @param term the term to be parsed
+     @param sign the sign of the operator preceding the term
+     @return a VectorTerm holding the signed coefficient and the vector literal
+     @throws IllegalArgumentException if the term is not a valid vector or scalar multiple of a vector
      */
-    private static String operators() {
-        return "( \\+ )|( - )";
+    static VectorTerm parseTerm(String term, Fraction sign) {
+        Fraction coefficient = sign;
+        // peel nested multiples such as 1/2(2(1, 2, 3)) from the outside in
+        while (term.indexOf('(') != term.lastIndexOf('(')) {
+            int open = term.indexOf('(');
+            if (!term.endsWith(")")) {
+                throw new IllegalArgumentException("Illegal format");
+            }
+            coefficient = coefficient.multiply(Fraction.valueOf(term.substring(0, open)));
+            term = term.substring(open + 1, term.length() - 1);
+        }
+
+        int open = term.indexOf('(');
+        if (open == -1) {
+            throw new IllegalArgumentException("Illegal format");
+        }
+        if (open > 0) {
+            coefficient = coefficient.multiply(Fraction.valueOf(term.substring(0, open)));
+        }
+        return new VectorTerm(coefficient, VectorType.parse(term.substring(open)));
     }
 
     /**
-     Returns a regex pattern for a vector of n dimensions. A vector is represented by a string that starts with an optional
-     sign (+ or -), followed by a fraction (or integer), then zero or more spaces, followed by a comma, then zero or more
-     spaces, and so on for each dimension. The final dimension is followed by a closing parenthesis. The format of each
-     fraction is determined by the {@link Fraction#fractionPattern()} method.
-     @param n the number of dimensions of the vector
-     @return the regex pattern for a vector of n dimensions
+     Parses an equation into its list of signed terms, in the order they appear.
+     The equation is split with a single scan at every " + " or " - " outside parentheses, and each term
+     is parsed and checked on its own, so the cost grows linearly with the number of terms.
+     @param equation the vector equation to parse
+     @return the terms of the equation, each carrying the sign of the operator before it
+     @throws IllegalArgumentException if the equation is not in the correct format
      */
-    private static String vectorType(int n) {
-        return String.format("(%s){0,1} {0,1}(%s)", Fraction.fractionPattern(), VectorType.formatVector(n));
+    static List<VectorTerm> parseTerms(String equation) throws IllegalArgumentException {
+        countVectorDimensions(equation); // every vector must have the same number of components
+        List<VectorTerm> terms = new ArrayList<>();
+        Fraction sign = new Fraction(1);
+        int start = 0;
+        int depth = 0;
+        for (int i = 0; i < equation.length(); i++) {
+            char c = equation.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && c == ' ' && i + 2 < equation.length() && equation.charAt(i + 2) == ' '
+                    && (equation.charAt(i + 1) == '+' || equation.charAt(i + 1) == '-')) {
+                terms.add(parseTerm(equation.substring(start, i), sign));
+                sign = new Fraction(equation.charAt(i + 1) == '-' ? -1 : 1);
+                start = i + 3;
+                i += 2;
+            }
+        }
+        terms.add(parseTerm(equation.substring(start), sign));
+        return terms;
     }
 
     /**
-     Returns the format for a fraction multiplied by a vector
-     with n dimensions.
-     @param n the number of dimensions in the vector
-     @return the coefficient format
+     Simplifies a list of terms before any vector arithmetic runs. Coefficients of identical vector
+     literals are merged into a single term, and terms that evaluate to the zero vector are dropped.
+     Nested scalar multiples are already folded into one coefficient by parsing. Coefficients are added
+     exactly; when a merged coefficient would not fit in a Fraction the terms are kept separate, so the
+     result is unchanged.
+     @param terms the terms to simplify
+     @return an equivalent list of terms with non-zero values
      */
-    private static String coefficientFormat(int n) {
-        return String.format("(%s)(%s)", Fraction.fractionPattern(), VectorType.formatVector(n));
+    static List<VectorTerm> simplify(List<VectorTerm> terms) {
+        Map<VectorType, VectorTerm> merged = new LinkedHashMap<>();
+        List<VectorTerm> unmerged = new ArrayList<>();
+        for (VectorTerm term : terms) {
+            VectorTerm previous = merged.putIfAbsent(term.getVector(), term);
+            if (previous != null) {
+                try {
+                    Fraction coefficient = previous.getCoefficient().addExact(term.getCoefficient());
+                    merged.put(term.getVector(), new VectorTerm(coefficient, previous.getVector()));
+                } catch (ArithmeticException e) {
+                    unmerged.add(term);
+                }
+            }
+        }
+        List<VectorTerm> simplified = new ArrayList<>();
+        for (VectorTerm term : merged.values()) {
+            if (!term.isZero()) {
+                simplified.add(term);
+            }
+        }
+        for (VectorTerm term : unmerged) {
+            if (!term.isZero()) {
+                simplified.add(term);
+            }
+        }
+        return simplified;
     }
 
     /**
-     Returns a regular expression string that matches an equation of vectors of dimension n.
-     @param n the dimension of the vectors in the equation
-     @return a regular expression string that matches an equation of vectors of dimension n
+     Sums a list of terms from left to right.
+     @param terms the terms to sum
+     @param n the number of dimensions of the vectors, used when the list is empty
+     @return the vector sum of the terms
      */
-    private static String equationFormat(int n) {
-        return String.format("(%s)((%s)(%s)){0,}", vectorType(n), operators(), vectorType(n));
+    static VectorType evaluate(List<VectorTerm> terms, int n) {
+        if (terms.isEmpty()) {
+            return zeroVector(n);
+        }
+        VectorType total = terms.get(0).evaluate();
+        for (int i = 1; i < terms.size(); i++) {
+            total = total.add(terms.get(i).evaluate());
+        }
+        return total;
     }
 
     /**
-     Parses a term in an equation and distributes a scalar multiple to a vector if applicable.
-     @param term the term to be parsed
-     @return a VectorType that may have been multiplied by a scalar
-     @throws IllegalArgumentException if the term is not a valid vector or scalar multiple of a vector
+     Sums a list of terms from left to right, snapping every term and partial sum to a bounded denominator.
+     @param terms the terms to sum
+     @param n the number of dimensions of the vectors, used when the list is empty
+     @param bound the evaluation mode that limits denominators and records the error introduced
+     @return the approximate vector sum of the terms
      */
-    private static VectorType distributeScalar(String term) {
-        if (term.matches(coefficientFormat(countVectorDimensions(term)))) {
-            String vectorStr = "(" + term.split("\\(")[1];
-            String scalarMultipleStr = term.split("\\(")[0];
+    static VectorType evaluate(List<VectorTerm> terms, int n, BoundedEvaluation bound) {
+        if (terms.isEmpty()) {
+            return zeroVector(n);
+        }
+        VectorType total = terms.get(0).evaluate(bound);
+        for (int i = 1; i < terms.size(); i++) {
+            total = bound.add(total, terms.get(i).evaluate(bound));
+        }
+        return total;
+    }
 
-            VectorType vector = VectorType.valueOf(vectorStr);
-            return vector.distributeScalar(Fraction.valueOf(scalarMultipleStr));
-        } else {
-            return VectorType.valueOf(term);
+    /**
+     Returns the zero vector with n dimensions.
+     */
+    private static VectorType zeroVector(int n) {
+        Fraction[] zero = new Fraction[n];
+        for (int i = 0; i < n; i++) {
+            zero[i] = new Fraction(0);
         }
+        return new VectorType(zero);
     }
 
+    /**
+     Sums a list of terms on the common fork-join pool. Partial sums are kept exact in BigInteger, so
+     how the terms are grouped cannot change the result: it equals {@link #evaluate(List, int)} whenever
+     that serial sum does not overflow, and an exact sum that does not fit is reported rather than wrapped.
+     @param terms the terms to sum
+     @param n the number of dimensions of the vectors
+     @return the vector sum of the terms
+     @throws ArithmeticException if a component of the sum does not fit in a Fraction
+     */
+    static VectorType evaluateParallel(List<VectorTerm> terms, int n) {
+        if (terms.size() <= PARALLEL_CHUNK_SIZE) {
+            return evaluate(terms, n);
+        }
+        return ForkJoinPool.commonPool().invoke(new PartialSum(terms, n)).toVector();
+    }
 
     /**
      Parses an equation in vector form and returns the resulting vector equation.
      The equation should be in vector or fraction form separated by "+" or "-" operators.
      The vector components and scalar factors must be in fraction form and enclosed in
      parentheses. The equation must have at least one vector term. All vectors in the equation
-     must have the same number of components.
+     must have the same number of components. The terms are simplified before they are evaluated.
      @param equation the vector equation to parse
      @return the resulting vector equation
      @throws IllegalArgumentException if the equation is not in the correct format
      */
     public static VectorType parseEquation(String equation) throws IllegalArgumentException {
+        List<VectorTerm> terms = parseTerms(equation);
+        return evaluate(simplify(terms), terms.get(0).getVector().getDimensionCount());
+    }
 
-        if (equation.matches(equationFormat(countVectorDimensions(equation)))) {
-
-            String[] totalEquationParts = equation.split(operators());
-            String initial = totalEquationParts[0];
-            VectorType vectorEquationTotal = distributeScalar(initial);
-            equation = equation.substring(initial.length());
-
-            while (!equation.isEmpty()) {
-                int count = countVectorDimensions(equation);
-                String operator = equation.split(vectorType(count))[0].trim();
-                String followingTerm = equation.split(operators())[1];
-                VectorType followingVector = distributeScalar(followingTerm);
-
-                switch (operator) {
-                    case "+":
-                        vectorEquationTotal = vectorEquationTotal.add(followingVector);
-                        break;
-                    case "-":
-                        vectorEquationTotal = vectorEquationTotal.subtract(followingVector);
-                        break;
-                    default:
-                        // Handle invalid operator
-                        break;
-                }
-                equation = equation.substring(operator.length() + 2 + followingTerm.length());
-            }
-
-            return vectorEquationTotal;
 
-        } else {
-            throw new IllegalArgumentException("Illegal format");
-        }
+    /**
+     Parses an equation in the same format as {@link #parseEquation(String)}, but snaps every intermediate
+     result to the best approximation whose denominator is within the bound. The error introduced is
+     recorded in the bound. Coefficients of repeated vectors are merged exactly before any snapping, so
+     every error in the result is one the bound has recorded.
+     @param equation the vector equation to parse
+     @param bound the evaluation mode that limits denominators
+     @return the approximate resulting vector
+     @throws IllegalArgumentException if the equation is not in the correct format
+     */
+    public static VectorType parseEquation(String equation, BoundedEvaluation bound) throws IllegalArgumentException {
+        List<VectorTerm> terms = parseTerms(equation);
+        return evaluate(simplify(terms), terms.get(0).getVector().getDimensionCount(), bound);
     }
 
+    /**
+     Parses an equation in the same format as {@link #parseEquation(String)} and sums its terms in
+     parallel chunks. Intended for single equations with a very large number of terms.
+     @param equation the vector equation to parse
+     @return the resulting vector equation
+     @throws IllegalArgumentException if the equation is not in the correct format
+     */
+    public static VectorType parseEquationParallel(String equation) throws IllegalArgumentException {
+        List<VectorTerm> terms = parseTerms(equation);
+        return evaluateParallel(simplify(terms), terms.get(0).getVector().getDimensionCount());
+    }
 
     /**
      * test cases for parser
@@ -171,6 +373,51 @@ class VectorParser {
         System.out.println(VectorParser.parseEquation("(1, 2, 3, 4, 5) + (-5, -4, -3, -2, -1)"));
         System.out.println(VectorParser.parseEquation("(1/2, 1/3, 1/4, 1/5, 1/6) - (1/6, 1/5, 1/4, 1/3, 1/2)"));
 
+        System.out.println(VectorParser.parseEquation("2(1, 2, 3) + 3(1, 2, 3) - (1, 2, 3)")); // (4, 8, 12)
+        System.out.println(VectorParser.parseEquation("1/2(2(1, 2, 3))")); // (1, 2, 3)
+        System.out.println(VectorParser.parseEquation("(1, 2) - 1/2(2(1, 2)) + 0(5, 5)")); // (0, 0)
+        System.out.println(VectorParser.parseEquation("(2/4, 1) + (1/2, 1) - -1 1/2(0, 0)")); // (1, 2)
+        System.out.println(VectorParser.parseEquation("1/46341(46341) + 1/46343(46341)")); // (1 46341/46343)
+
+        List<VectorTerm> manyTerms = new ArrayList<>();
+        for (int i = 1; i <= 2000; i++) {
+            manyTerms.add(new VectorTerm(new Fraction(i % 2 == 0 ? 1 : -1, i % 7 + 1), VectorType.valueOf("(1, 2, 3)").distributeScalar(new Fraction(1, i % 5 + 1))));
+        }
+        System.out.println(evaluate(manyTerms, 3)); // matches the parallel result on the next line
+        System.out.println(evaluateParallel(manyTerms, 3));
+
+        // terms 257 and 258 land in the same chunk, where adding 1/46341 and -1/46341 + 1/46343 in int
+        // would overflow, so the grouping matters unless partial sums are exact
+        List<VectorTerm> grouped = new ArrayList<>();
+        for (int i = 0; i < 514; i++) {
+            String vector = i == 0 ? "(1/46341, 0)" : i == 257 ? "(-1/46341, 0)" : i == 258 ? "(1/46343, 0)" : "(0, " + i + ")";
+            grouped.add(new VectorTerm(new Fraction(1), VectorType.valueOf(vector)));
+        }
+        System.out.println(evaluateParallel(grouped, 2)); // (1/46343, 131326)
+        System.out.println(evaluateParallel(grouped, 2).equals(evaluate(grouped, 2))); // true
+
+        // an equation long enough to be summed in parallel chunks
+        StringBuilder longEquation = new StringBuilder("(0, 0, 0)");
+        for (int i = 1; i <= 2000; i++) {
+            longEquation.append(i % 3 == 0 ? " - " : " + ").append(i % 7 + 1).append("(1/").append(i % 5 + 1).append(", ").append(i).append(", -1)");
+        }
+        String equation = longEquation.toString();
+        System.out.println(simplify(parseTerms(equation)).size() > PARALLEL_CHUNK_SIZE); // true
+        System.out.println(parseEquationParallel(equation).equals(parseEquation(equation))); // true
+
+        System.out.println(VectorParser.parseEquation("(5; 1: 2) + 3(5; 1: -1, 4: 1/2)")); // (0, -1, 0, 0, 1 1/2)
+        System.out.println(VectorParser.parseEquation("(1, 2, 3) - (3; 2: 3)")); // (1, 2, 0)
+        System.out.println(VectorParser.parseEquation("(20000; 7: 1/3) - 2(20000; 7: 1/6, 19999: 1)").toSparseString()); // (20000; 19999: -2)
+        String wide = "(" + String.join(", ", Collections.nCopies(1000, "1/2")) + ")";
+        System.out.println(VectorParser.parseEquation(wide + " + " + wide).getDimension(999)); // 1
+
+        BoundedEvaluation bound = new BoundedEvaluation(10);
+        System.out.println(VectorParser.parseEquation("(1/3, 1/7) + (1/11, 1/13)", bound)); // (3/7, 1/4)
+        System.out.println(bound); // 4 snaps: 1/11 and 1/13, then both sums
+        BoundedEvaluation wideBound = new BoundedEvaluation(100000);
+        System.out.println(VectorParser.parseEquation("1/46341(46341) + 1/46343(46341)", wideBound)); // (1 46341/46343)
+        System.out.println(wideBound.getSnapCount()); // 0
+
     }
 
     /**
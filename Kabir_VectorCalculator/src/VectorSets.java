@@ -0,0 +1,160 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class VectorSets {
+
+    /**
+     The exact squared length of a vector. Unlike a Fraction it cannot overflow, so it is used as the key
+     when sorting and grouping vectors by length.
+     */
+    static final class SquaredNorm implements Comparable<SquaredNorm> {
+        private final BigInteger numerator;
+        private final BigInteger denominator;
+
+        SquaredNorm(VectorType vector) {
+            BigInteger[] norm = vector.exactDotProduct(vector);
+            numerator = norm[0];
+            denominator = norm[1];
+        }
+
+        @Override
+        public int compareTo(SquaredNorm other) {
+            return numerator.multiply(other.denominator).compareTo(other.numerator.multiply(denominator));
+        }
+
+        /**
+         Squared norms are stored reduced with a positive denominator, so equal values have equal fields.
+         */
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof SquaredNorm && numerator.equals(((SquaredNorm) other).numerator)
+                    && denominator.equals(((SquaredNorm) other).denominator);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * numerator.hashCode() + denominator.hashCode();
+        }
+
+        /**
+         Returns the squared norm written like a Fraction, as a whole number, a proper fraction or a mixed number.
+         */
+        @Override
+        public String toString() {
+            BigInteger[] whole = numerator.divideAndRemainder(denominator);
+            if (whole[1].signum() == 0) {
+                return whole[0].toString();
+            } else if (whole[0].signum() == 0) {
+                return numerator + "/" + denominator;
+            }
+            return whole[0] + " " + whole[1] + "/" + denominator;
+        }
+    }
+
+    /**
+     Sorts a copy of the vectors lexicographically by their components in parallel.
+     @param vectors the vectors to sort
+     @return a new array holding the vectors in lexicographic order
+     */
+    public static VectorType[] sortLexicographically(VectorType[] vectors) {
+        VectorType[] sorted = vectors.clone();
+        Arrays.parallelSort(sorted);
+        return sorted;
+    }
+
+    /**
+     Sorts a copy of the vectors by squared norm in parallel, breaking ties lexicographically.
+     Each squared norm is computed exactly once up front instead of on every comparison.
+     @param vectors the vectors to sort
+     @return a new array holding the vectors from shortest to longest
+     */
+    public static VectorType[] sortBySquaredNorm(VectorType[] vectors) {
+        SquaredNorm[] norms = new SquaredNorm[vectors.length];
+        IntStream.range(0, vectors.length).parallel().forEach(i -> norms[i] = new SquaredNorm(vectors[i]));
+        Integer[] order = new Integer[vectors.length];
+        Arrays.setAll(order, i -> i);
+        Arrays.parallelSort(order, Comparator.<Integer, SquaredNorm>comparing(i -> norms[i]).thenComparing(i -> vectors[i]));
+        VectorType[] sorted = new VectorType[vectors.length];
+        Arrays.setAll(sorted, i -> vectors[order[i]]);
+        return sorted;
+    }
+
+    /**
+     Removes duplicate vectors in parallel, keeping the first occurrence of each in its original position.
+     Vectors are compared by value, so equal vectors stored densely and sparsely are duplicates.
+     @param vectors the vectors to deduplicate
+     @return the distinct vectors in their original order
+     */
+    public static VectorType[] distinct(VectorType[] vectors) {
+        return Arrays.stream(vectors).parallel().distinct().toArray(VectorType[]::new);
+    }
+
+    /**
+     Groups the vectors by a key in parallel. Each group keeps the vectors in their original order.
+     @param vectors the vectors to group
+     @param classifier the function computing the key of a vector
+     @return a map from each key to the vectors with that key
+     */
+    public static <K> Map<K, List<VectorType>> groupBy(VectorType[] vectors, Function<VectorType, K> classifier) {
+        return Arrays.stream(vectors).parallel().collect(Collectors.groupingBy(classifier));
+    }
+
+    /**
+     Groups the vectors by their exact squared norm in parallel.
+     @param vectors the vectors to group
+     @return a map from each squared norm, in increasing order, to the vectors with that norm
+     */
+    public static TreeMap<SquaredNorm, List<VectorType>> groupBySquaredNorm(VectorType[] vectors) {
+        return Arrays.stream(vectors).parallel()
+                .collect(Collectors.groupingBy(SquaredNorm::new, TreeMap::new, Collectors.toList()));
+    }
+
+    /**
+     * test cases for vector set utilities
+     */
+    private static void test() {
+        VectorType[] vectors = {
+                VectorType.valueOf("(3, 4)"),
+                VectorType.valueOf("(1, 1/2)"),
+                VectorType.valueOf("(0, -5)"),
+                VectorType.valueOf("(2/2, 1/2)"),
+                VectorType.valueOf("(-1, 0)"),
+                VectorType.valueOf("(1, -3)")
+        };
+        System.out.println(Arrays.toString(sortLexicographically(vectors))); // [(-1, 0), (0, -5), (1, -3), (1, 1/2), (1, 1/2), (3, 4)]
+        System.out.println(Arrays.toString(sortBySquaredNorm(vectors))); // [(-1, 0), (1, 1/2), (1, 1/2), (1, -3), (0, -5), (3, 4)]
+        System.out.println(Arrays.toString(distinct(vectors))); // [(3, 4), (1, 1/2), (0, -5), (-1, 0), (1, -3)]
+        System.out.println(groupBySquaredNorm(vectors)); // {1=[(-1, 0)], 1 1/4=[(1, 1/2), (1, 1/2)], 10=[(1, -3)], 25=[(3, 4), (0, -5)]}
+        System.out.println(groupBy(vectors, v -> v.getDimension(0)).get(new Fraction(1))); // [(1, 1/2), (1, 1/2), (1, -3)]
+
+        // squared norms that do not fit in an int
+        VectorType[] large = {VectorType.valueOf("(50000, 0)"), VectorType.valueOf("(1, 0)"), VectorType.valueOf("(3, 0)")};
+        System.out.println(Arrays.toString(sortBySquaredNorm(large))); // [(1, 0), (3, 0), (50000, 0)]
+        System.out.println(groupBySquaredNorm(large)); // {1=[(1, 0)], 9=[(3, 0)], 2500000000=[(50000, 0)]}
+
+        // a large set with many repeats, compared against a serial reference
+        VectorType[] many = new VectorType[200000];
+        for (int i = 0; i < many.length; i++) {
+            many[i] = new VectorType(new Fraction(i % 97 - 48, i % 5 + 1), new Fraction(i % 13, 3), new Fraction(i % 7 - 3));
+        }
+        VectorType[] sorted = sortLexicographically(many);
+        boolean ordered = true;
+        for (int i = 1; i < sorted.length; i++) {
+            ordered &= sorted[i - 1].compareTo(sorted[i]) <= 0;
+        }
+        System.out.println(ordered); // true
+        System.out.println(distinct(many).length == new HashSet<>(Arrays.asList(many)).size()); // true
+    }
+
+    public static void main(String[] args) {
+        test();
+    }
+}
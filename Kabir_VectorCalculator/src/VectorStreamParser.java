@@ -0,0 +1,253 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+class VectorStreamParser {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     Longest term, in characters, that the parser holds in memory. A longer term, including one whose
+     parentheses are never closed, is rejected instead of being read to the end of the stream.
+     */
+    static final int MAX_TERM_LENGTH = 1 << 20;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    /**
+     Constructor for a parser that reads one equation from a character stream.
+     @param reader the stream holding the equation
+     */
+    private VectorStreamParser(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     Returns the next character of the stream without consuming it.
+     @return the next character, or -1 at the end of the stream
+     @throws IOException if the stream cannot be read
+     */
+    private int peek() throws IOException {
+        while (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit == -1) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+
+    /**
+     Consumes and returns the next character of the stream.
+     @return the next character, or -1 at the end of the stream
+     @throws IOException if the stream cannot be read
+     */
+    private int next() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            position++;
+        }
+        return c;
+    }
+
+    /**
+     Reads one term up to the closing parenthesis that balances its first opening parenthesis.
+     Only the text of this term is held in memory, so its size depends on the vector dimension and
+     not on the length of the equation.
+     @return the text of the term
+     @throws IOException if the stream cannot be read
+     @throws IllegalArgumentException if the stream ends before the term is complete or the term is
+     longer than MAX_TERM_LENGTH characters
+     */
+    private String readTerm() throws IOException {
+        StringBuilder term = new StringBuilder();
+        int depth = 0;
+        while (true) {
+            int c = next();
+            if (c == -1) {
+                throw new IllegalArgumentException("Illegal format");
+            }
+            if (term.length() == MAX_TERM_LENGTH) {
+                throw new IllegalArgumentException("Term is longer than " + MAX_TERM_LENGTH + " characters");
+            }
+            term.append((char) c);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth < 0) {
+                    throw new IllegalArgumentException("Illegal format");
+                }
+                if (depth == 0) {
+                    return term.toString();
+                }
+            }
+        }
+    }
+
+    /**
+     Reads the operator between two terms, which must be " + " or " - ". Trailing whitespace at the end
+     of the stream is accepted.
+     @return the sign of the next term, or null at the end of the equation
+     @throws IOException if the stream cannot be read
+     @throws IllegalArgumentException if the operator is not in the correct format
+     */
+    private Fraction readOperator() throws IOException {
+        int c = next();
+        if (c == -1) {
+            return null;
+        }
+        if (c == ' ') {
+            int operator = next();
+            if ((operator == '+' || operator == '-') && next() == ' ') {
+                return new Fraction(operator == '-' ? -1 : 1);
+            }
+            c = operator;
+        }
+        while (c != -1 && Character.isWhitespace(c)) {
+            c = next();
+        }
+        if (c != -1) {
+            throw new IllegalArgumentException("Illegal format");
+        }
+        return null;
+    }
+
+    /**
+     Parses the equation term by term, folding each term into a running total as soon as it is read.
+     @param bound the evaluation mode that limits denominators, or null to evaluate exactly
+     @return the resulting vector
+     @throws IOException if the stream cannot be read
+     @throws IllegalArgumentException if the equation is not in the correct format
+     */
+    private VectorType run(BoundedEvaluation bound) throws IOException {
+        VectorTerm first = VectorParser.parseTerm(readTerm(), new Fraction(1));
+        VectorType total = bound == null ? first.evaluate() : first.evaluate(bound);
+        Fraction sign = readOperator();
+        while (sign != null) {
+            VectorTerm term = VectorParser.parseTerm(readTerm(), sign);
+            total = bound == null ? total.add(term.evaluate()) : bound.add(total, term.evaluate(bound));
+            sign = readOperator();
+        }
+        return total;
+    }
+
+    /**
+     Evaluates a vector equation read incrementally from a character stream. The equation has the same
+     format as {@link VectorParser#parseEquation(String)}, but it is never held in memory as a whole, so
+     memory use is bounded by the length of the longest term, at most MAX_TERM_LENGTH characters, rather
+     than by the number of terms.
+     @param reader the stream holding the equation
+     @return the resulting vector
+     @throws IOException if the stream cannot be read
+     @throws IllegalArgumentException if the equation is not in the correct format
+     */
+    public static VectorType parseEquation(Reader reader) throws IOException, IllegalArgumentException {
+        return new VectorStreamParser(reader).run(null);
+    }
+
+    /**
+     Evaluates a vector equation read incrementally from a character stream, snapping the running total
+     to the best approximation whose denominator is within the bound after every term. Both memory use
+     and the cost of each term stay flat however long the equation is.
+     @param reader the stream holding the equation
+     @param bound the evaluation mode that limits denominators and records the error introduced
+     @return the approximate resulting vector
+     @throws IOException if the stream cannot be read
+     @throws IllegalArgumentException if the equation is not in the correct format
+     */
+    public static VectorType parseEquation(Reader reader, BoundedEvaluation bound) throws IOException, IllegalArgumentException {
+        return new VectorStreamParser(reader).run(bound);
+    }
+
+    /**
+     Evaluates a UTF-8 encoded vector equation read incrementally from a byte channel.
+     @param channel the channel holding the equation
+     @return the resulting vector
+     @throws IOException if the channel cannot be read
+     @throws IllegalArgumentException if the equation is not in the correct format
+     */
+    public static VectorType parseEquation(ReadableByteChannel channel) throws IOException, IllegalArgumentException {
+        return parseEquation(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), -1));
+    }
+
+    /**
+     * test cases for the streaming parser
+     */
+    private static void test() throws IOException {
+        System.out.println(parseEquation(new StringReader("(1, 2, 3) + (4, 5, 6)"))); // (5, 7, 9)
+        System.out.println(parseEquation(new StringReader("(2, 3/2, 4) + 3(1/2, -1/4, 5) - (4, 1, 3)\n"))); // (-1/2, -1/4, 16)
+        System.out.println(parseEquation(new StringReader("1 1/5(1/2, 3/8, -29) - 1 1/4(2, -3, 4) + 2/3(5, -1/3, -1/6)"))); // (1 13/30, 3 44/45, -39 41/45)
+        System.out.println(parseEquation(new StringReader("1/2(2(1, 2, 3)) - (1, 1, 1)"))); // (0, 1, 2)
+
+        // a generated equation of 300000 terms that is never materialised as a String
+        final int termCount = 300000;
+        Reader generated = new Reader() {
+            private int term = 0;
+            private String pending = "";
+
+            @Override
+            public int read(char[] cbuf, int off, int len) {
+                if (pending.isEmpty()) {
+                    if (term == termCount) {
+                        return -1;
+                    }
+                    pending = (term == 0 ? "" : " + ") + (term % 3 + 1) + "(1, -1/2, 3)";
+                    term++;
+                }
+                int count = Math.min(len, pending.length());
+                pending.getChars(0, count, cbuf, off);
+                pending = pending.substring(count);
+                return count;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        System.out.println(parseEquation(generated)); // (600000, -300000, 1800000)
+
+        BoundedEvaluation bound = new BoundedEvaluation(1000);
+        System.out.println(parseEquation(new StringReader("(1/997, 0) + (1/991, 1) + (1/983, 1/2)"), bound)); // (1/330, 1 1/2)
+        System.out.println(bound.getSnapCount() > 0); // true
+
+        try {
+            parseEquation(new StringReader("(1, 2) + (3, 4"));
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage()); // Illegal format
+        }
+
+        // a term whose parenthesis is never closed is rejected without reading the rest of the stream
+        Reader unclosed = new Reader() {
+            @Override
+            public int read(char[] cbuf, int off, int len) {
+                cbuf[off] = '(';
+                for (int i = 1; i < len; i++) {
+                    cbuf[off + i] = '1';
+                }
+                return len;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        try {
+            parseEquation(unclosed);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage()); // Term is longer than 1048576 characters
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        test();
+    }
+}
@@ -0,0 +1,60 @@
+
+class VectorTerm {
+    private final Fraction coefficient;
+    private final VectorType vector;
+
+    /**
+     Constructor for a term of a vector equation, a vector literal multiplied by a signed coefficient.
+     @param coefficient the scalar multiple of the vector, including the sign of the term
+     @param vector the vector literal
+     */
+    public VectorTerm(Fraction coefficient, VectorType vector) {
+        this.coefficient = coefficient;
+        this.vector = vector;
+    }
+
+    public Fraction getCoefficient() {
+        return coefficient;
+    }
+
+    public VectorType getVector() {
+        return vector;
+    }
+
+    /**
+     Checks whether this term contributes nothing to a sum, either because its coefficient is zero or
+     because every component of its vector is zero.
+     @return true if the term evaluates to the zero vector
+     */
+    public boolean isZero() {
+        return coefficient.getNumerator() == 0 || vector.isZero();
+    }
+
+    /**
+     Distributes the coefficient over the vector. A coefficient of 1 returns the vector unchanged.
+     @return the vector value of this term
+     */
+    public VectorType evaluate() {
+        if (coefficient.getNumerator() == 1 && coefficient.getDenominator() == 1) {
+            return vector;
+        }
+        return vector.distributeScalar(coefficient);
+    }
+
+    /**
+     Distributes the coefficient over the vector exactly and snaps the result to a bounded denominator.
+     @param bound the evaluation mode that limits denominators
+     @return the approximate vector value of this term
+     */
+    public VectorType evaluate(BoundedEvaluation bound) {
+        return bound.distributeScalar(vector, coefficient);
+    }
+
+    /**
+     Returns a string representation of this term in the format "c(d1, d2, ..., dn)".
+     @return a string representation of this term
+     */
+    public String toString() {
+        return coefficient + vector.toString();
+    }
+}
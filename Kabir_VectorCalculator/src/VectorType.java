@@ -1,16 +1,205 @@
+import java.math.BigInteger;
 import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.ObjIntConsumer;
+import java.util.function.UnaryOperator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-class VectorType {
+class VectorType implements Comparable<VectorType> {
+
+    /**
+     Vectors with fewer dimensions than this are always stored densely.
+     */
+    static final int SPARSE_MIN_DIMENSIONS = 64;
+
+    /**
+     Largest fraction of non-zero components for which a vector is stored sparsely.
+     */
+    static final double SPARSE_FILL_RATIO = 0.25;
+
+    // dense storage, null when the vector is stored sparsely
     private Fraction[] dimensions;
+    // sparse storage, the sorted indices of the non-zero components and their values
+    private int[] indices;
+    private Fraction[] values;
+    private int length;
 
     /**
      Constructor for a VectorType object that takes in an array of Fractions as its dimensions.
+     Large vectors that are mostly zero are stored sparsely.
      @param dimensions an array of Fractions representing the dimensions of the vector
      */
     public VectorType(Fraction... dimensions) {
-        this.dimensions = dimensions;
+        this.length = dimensions.length;
+        int nonZero = 0;
+        for (Fraction dimension : dimensions) {
+            if (dimension.getNumerator() != 0) {
+                nonZero++;
+            }
+        }
+        if (prefersSparse(length, nonZero)) {
+            indices = new int[nonZero];
+            values = new Fraction[nonZero];
+            int k = 0;
+            for (int i = 0; i < length; i++) {
+                if (dimensions[i].getNumerator() != 0) {
+                    indices[k] = i;
+                    values[k++] = dimensions[i];
+                }
+            }
+        } else {
+            this.dimensions = dimensions;
+        }
+    }
+
+    /**
+     Constructor for a VectorType object from its non-zero components, choosing the storage by fill ratio.
+     @param length the number of dimensions of the vector
+     @param indices the sorted indices of the non-zero components, of which the first nonZero are used
+     @param values the values of the non-zero components, of which the first nonZero are used
+     @param nonZero the number of non-zero components
+     */
+    private VectorType(int length, int[] indices, Fraction[] values, int nonZero) {
+        this.length = length;
+        if (prefersSparse(length, nonZero)) {
+            this.indices = nonZero == indices.length ? indices : Arrays.copyOf(indices, nonZero);
+            this.values = nonZero == values.length ? values : Arrays.copyOf(values, nonZero);
+        } else {
+            dimensions = new Fraction[length];
+            for (int i = 0, k = 0; i < length; i++) {
+                dimensions[i] = k < nonZero && indices[k] == i ? values[k++] : new Fraction(0);
+            }
+        }
+    }
+
+    private static boolean prefersSparse(int length, int nonZero) {
+        return length >= SPARSE_MIN_DIMENSIONS && nonZero <= length * SPARSE_FILL_RATIO;
+    }
+
+    /**
+     Creates a vector from its non-zero components. Zero values are dropped, and the vector is stored
+     densely if it turns out not to be sparse enough.
+     @param length the number of dimensions of the vector
+     @param indices the zero-based indices of the given components, in increasing order
+     @param values the values of the given components
+     @return a VectorType with the given components and zeros everywhere else
+     @throws IllegalArgumentException if the indices are not increasing or are out of range
+     */
+    public static VectorType sparse(int length, int[] indices, Fraction[] values) throws IllegalArgumentException {
+        if (indices.length != values.length) {
+            throw new IllegalArgumentException("Each index must have exactly one value");
+        }
+        int[] keptIndices = new int[indices.length];
+        Fraction[] keptValues = new Fraction[values.length];
+        int k = 0;
+        for (int i = 0; i < indices.length; i++) {
+            if (indices[i] < 0 || indices[i] >= length || i > 0 && indices[i] <= indices[i - 1]) {
+                throw new IllegalArgumentException("Sparse indices must be increasing and within the dimension");
+            }
+            if (values[i].getNumerator() != 0) {
+                keptIndices[k] = indices[i];
+                keptValues[k++] = values[i];
+            }
+        }
+        return new VectorType(length, keptIndices, keptValues, k);
+    }
+
+    /**
+     Returns whether this vector stores only its non-zero components.
+     @return true if the vector is stored sparsely
+     */
+    public boolean isSparse() {
+        return dimensions == null;
+    }
+
+    /**
+     Returns the number of dimensions of this vector.
+     @return the number of components in this vector
+     */
+    public int getDimensionCount() {
+        return length;
+    }
+
+    /**
+     Returns the component of this vector at the given index.
+     @param index the zero-based index of the component
+     @return the Fraction stored at that index
+     */
+    public Fraction getDimension(int index) {
+        if (dimensions != null) {
+            return dimensions[index];
+        }
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+        }
+        int position = Arrays.binarySearch(indices, index);
+        return position >= 0 ? values[position] : new Fraction(0);
+    }
+
+    /**
+     Checks whether every component of this vector is zero.
+     @return true if this is the zero vector
+     */
+    public boolean isZero() {
+        if (dimensions == null) {
+            return indices.length == 0;
+        }
+        for (Fraction dimension : dimensions) {
+            if (dimension.getNumerator() != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     Returns every component of this vector, filling in the zeros of a sparse vector.
+     */
+    private Fraction[] toArray() {
+        if (dimensions != null) {
+            return dimensions;
+        }
+        Fraction[] result = new Fraction[length];
+        for (int i = 0, k = 0; i < length; i++) {
+            result[i] = k < indices.length && indices[k] == i ? values[k++] : new Fraction(0);
+        }
+        return result;
+    }
+
+    /**
+     Returns the sorted indices of the non-zero components of this vector.
+     */
+    private int[] nonZeroIndices() {
+        if (dimensions == null) {
+            return indices;
+        }
+        int[] result = new int[length];
+        int k = 0;
+        for (int i = 0; i < length; i++) {
+            if (dimensions[i].getNumerator() != 0) {
+                result[k++] = i;
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    /**
+     Returns the values of the non-zero components of this vector, matching {@link #nonZeroIndices()}.
+     */
+    private Fraction[] nonZeroValues() {
+        if (dimensions == null) {
+            return values;
+        }
+        Fraction[] result = new Fraction[length];
+        int k = 0;
+        for (Fraction dimension : dimensions) {
+            if (dimension.getNumerator() != 0) {
+                result[k++] = dimension;
+            }
+        }
+        return Arrays.copyOf(result, k);
     }
 
     /**
@@ -24,9 +213,53 @@ class VectorType {
         return String.format("\\((%s)\\)", String.join("), (", coordPatterns));
     }
 
+    /**
+     Parses a vector written exactly as "(a, b, c, ...)" or "(n; i: a, j: b, ...)", with single spaces
+     after every comma, colon and semicolon. Each component is checked on its own in a loop, so unlike a
+     single regular expression the cost and stack depth do not depend on the number of components.
+     @param vector a string representation of a vector
+     @return a VectorType object created from the input string
+     @throws IllegalArgumentException if the input string is not in exactly this format
+     */
+    static VectorType parse(String vector) throws IllegalArgumentException {
+        if (!vector.startsWith("(") || !vector.endsWith(")") || vector.length() < 2) {
+            throw new IllegalArgumentException("Invalid Format");
+        }
+        String inside = vector.substring(1, vector.length() - 1);
+        int semicolon = inside.indexOf(';');
+        if (semicolon == -1) {
+            String[] components = inside.split(", ", -1);
+            Fraction[] dimensions = new Fraction[components.length];
+            for (int i = 0; i < components.length; i++) {
+                dimensions[i] = Fraction.valueOf(components[i]);
+            }
+            return new VectorType(dimensions);
+        }
+
+        String length = inside.substring(0, semicolon);
+        String rest = inside.substring(semicolon + 1);
+        if (!length.matches("[1-9]\\d*") || !rest.isEmpty() && !rest.startsWith(" ")) {
+            throw new IllegalArgumentException("Invalid Format");
+        }
+        String[] entries = rest.isEmpty() ? new String[0] : rest.substring(1).split(", ", -1);
+        int[] indices = new int[entries.length];
+        Fraction[] values = new Fraction[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            String[] entry = entries[i].split(": ", -1);
+            if (entry.length != 2 || !entry[0].matches("\\d+")) {
+                throw new IllegalArgumentException("Invalid Format");
+            }
+            indices[i] = Integer.valueOf(entry[0]);
+            values[i] = Fraction.valueOf(entry[1]);
+        }
+        return sparse(Integer.valueOf(length), indices, values);
+    }
+
     /**
      Creates a new VectorType object from a string in the format "(a, b, c, ...)" where a, b, c, ...
-     represent the individual components of the vector.
+     represent the individual components of the vector, or in the sparse format "(n; i: a, j: b, ...)"
+     where n is the number of dimensions and only the components at the increasing zero-based
+     indices i, j, ... are non-zero.
      @param vector a string representation of a vector
      @return a VectorType object created from the input string
      @throws IllegalArgumentException if the input string is not in the correct format
@@ -37,6 +270,21 @@ class VectorType {
         if (!matcher.matches()) {
             throw new IllegalArgumentException("Invalid Format");
         }
+        Matcher sparse = Pattern.compile("(\\d+);\\s*(.*)").matcher(matcher.group(1));
+        if (sparse.matches()) {
+            String[] entries = sparse.group(2).isEmpty() ? new String[0] : sparse.group(2).split(",\\s*");
+            int[] indices = new int[entries.length];
+            Fraction[] values = new Fraction[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                String[] entry = entries[i].split(":\\s*");
+                if (entry.length != 2) {
+                    throw new IllegalArgumentException("Invalid Format");
+                }
+                indices[i] = Integer.valueOf(entry[0]);
+                values[i] = Fraction.valueOf(entry[1]);
+            }
+            return sparse(Integer.valueOf(sparse.group(1)), indices, values);
+        }
         String[] dimensionStrings = matcher.group(1).split(",\\s*");
         Fraction[] dimensions = new Fraction[dimensionStrings.length];
         for (int i = 0; i < dimensions.length; i++) {
@@ -53,14 +301,10 @@ class VectorType {
      * @throws IllegalArgumentException if the dimensions of the two vectors are different
      */
     public VectorType add(VectorType other) throws IllegalArgumentException {
-        if (dimensions.length != other.dimensions.length) {
+        if (length != other.length) {
             throw new IllegalArgumentException("Cannot add vectors of different dimensions");
         }
-        Fraction[] resultDimensions = new Fraction[dimensions.length];
-        for (int i = 0; i < dimensions.length; i++) {
-            resultDimensions[i] = dimensions[i].add(other.dimensions[i]);
-        }
-        return new VectorType(resultDimensions);
+        return zipWith(other, Fraction::add);
     }
 
     /**
@@ -70,14 +314,58 @@ class VectorType {
      @throws IllegalArgumentException if the dimensions of the input vector do not match the dimensions of the current vector
      */
     public VectorType subtract(VectorType other) throws IllegalArgumentException {
-        if (dimensions.length != other.dimensions.length) {
+        if (length != other.length) {
             throw new IllegalArgumentException("Cannot subtract vectors of different dimensions");
         }
-        Fraction[] resultDimensions = new Fraction[dimensions.length];
-        for (int i = 0; i < dimensions.length; i++) {
-            resultDimensions[i] = dimensions[i].subtract(other.dimensions[i]);
+        return zipWith(other, Fraction::subtract);
+    }
+
+    /**
+     Combines this vector with another component by component. The function must map two zeros to zero.
+     If either vector is sparse, the sorted non-zero components of both are merged, so the cost depends on
+     the number of non-zero components rather than the number of dimensions.
+     @param other the vector to combine with this vector, of the same dimension
+     @param function the function combining a component of this vector with the same component of the other
+     @return the combined vector
+     */
+    VectorType zipWith(VectorType other, BinaryOperator<Fraction> function) {
+        if (dimensions != null && other.dimensions != null) {
+            Fraction[] resultDimensions = new Fraction[dimensions.length];
+            for (int i = 0; i < dimensions.length; i++) {
+                resultDimensions[i] = function.apply(dimensions[i], other.dimensions[i]);
+            }
+            return new VectorType(resultDimensions);
         }
-        return new VectorType(resultDimensions);
+        Fraction zero = new Fraction(0);
+        int[] leftIndices = nonZeroIndices();
+        Fraction[] leftValues = nonZeroValues();
+        int[] rightIndices = other.nonZeroIndices();
+        Fraction[] rightValues = other.nonZeroValues();
+        int[] resultIndices = new int[leftIndices.length + rightIndices.length];
+        Fraction[] resultValues = new Fraction[resultIndices.length];
+        int a = 0;
+        int b = 0;
+        int k = 0;
+        while (a < leftIndices.length || b < rightIndices.length) {
+            int index;
+            Fraction value;
+            if (b == rightIndices.length || a < leftIndices.length && leftIndices[a] < rightIndices[b]) {
+                index = leftIndices[a];
+                value = function.apply(leftValues[a++], zero);
+            } else if (a == leftIndices.length || rightIndices[b] < leftIndices[a]) {
+                index = rightIndices[b];
+                value = function.apply(zero, rightValues[b++]);
+            } else {
+                index = leftIndices[a];
+                value = function.apply(leftValues[a++], rightValues[b++]);
+            }
+            // cancelled components are left out
+            if (value.getNumerator() != 0) {
+                resultIndices[k] = index;
+                resultValues[k++] = value;
+            }
+        }
+        return new VectorType(length, resultIndices, resultValues, k);
     }
 
 
@@ -90,17 +378,19 @@ class VectorType {
      @throws IllegalArgumentException if the vectors have different dimensions or have less than 3 dimensions
      */
     public VectorType crossProduct(VectorType other) throws IllegalArgumentException {
-        int n = dimensions.length;
-        int m = other.dimensions.length;
+        int n = length;
+        int m = other.length;
         if (n != m || n < 3 || m < 3) {
             throw new IllegalArgumentException("Vectors must have the same number of dimensions and dimensions greater or equal to 3");
         }
+        Fraction[] dimensions = toArray();
+        Fraction[] otherDimensions = other.toArray();
 
         Fraction[] result = new Fraction[n];
         for (int i = 0; i < n; i++) {
             int j = (i + 1) % n;
             int k = (i + 2) % n;
-            result[j] = dimensions[i].multiply(other.dimensions[k]).subtract(dimensions[k].multiply(other.dimensions[i]));
+            result[j] = dimensions[i].multiply(otherDimensions[k]).subtract(dimensions[k].multiply(otherDimensions[i]));
         }
 
         return new VectorType(result);
@@ -108,28 +398,112 @@ class VectorType {
 
     /**
      * Computes the dot product of this vector with the given vector.
+     * If either vector is sparse only the components that are non-zero in it are visited, and if both
+     * are sparse only the indices they have in common.
      *
      * @param other the other vector to compute the dot product with
      * @return the dot product of this vector and the given vector
      * @throws IllegalArgumentException if the dimensions of this vector and the given vector are different
      */
     public Fraction dotProduct(VectorType other) throws IllegalArgumentException {
-        if (dimensions.length != other.dimensions.length) {
-            throw new IllegalArgumentException("Cannot compute dot product of vectors of different dimensions");
+        Fraction[] sum = {new Fraction(0,0,1)};
+        forEachPair(other, (a, b) -> sum[0] = sum[0].add(a.multiply(b)));
+        return sum[0];
+    }
+
+    /**
+     Passes every non-zero component of this vector and its index to an action, in increasing order of index.
+     @param action the action receiving each non-zero component and its zero-based index
+     */
+    void forEachNonZero(ObjIntConsumer<Fraction> action) {
+        if (dimensions == null) {
+            for (int k = 0; k < indices.length; k++) {
+                action.accept(values[k], indices[k]);
+            }
+            return;
         }
-        Fraction sum = new Fraction(0,0,1);
         for (int i = 0; i < dimensions.length; i++) {
-            sum = sum.add(dimensions[i].multiply(other.dimensions[i]));
+            if (dimensions[i].getNumerator() != 0) {
+                action.accept(dimensions[i], i);
+            }
         }
+    }
+
+    /**
+     Computes the dot product of this vector with the given vector in arbitrary precision, so that the
+     result is exact however large the products of the int fields become.
+     @param other the other vector to compute the dot product with
+     @return the reduced numerator and positive denominator of the dot product
+     @throws IllegalArgumentException if the dimensions of this vector and the given vector are different
+     */
+    BigInteger[] exactDotProduct(VectorType other) throws IllegalArgumentException {
+        BigInteger[] sum = {BigInteger.ZERO, BigInteger.ONE};
+        forEachPair(other, (a, b) -> {
+            BigInteger numerator = BigInteger.valueOf(a.getNumerator()).multiply(BigInteger.valueOf(b.getNumerator()));
+            BigInteger denominator = BigInteger.valueOf(a.getDenominator()).multiply(BigInteger.valueOf(b.getDenominator()));
+            BigInteger sumNumerator = sum[0].multiply(denominator).add(numerator.multiply(sum[1]));
+            BigInteger sumDenominator = sum[1].multiply(denominator);
+            BigInteger gcd = sumNumerator.gcd(sumDenominator);
+            sum[0] = sumNumerator.divide(gcd);
+            sum[1] = sumDenominator.divide(gcd);
+        });
         return sum;
     }
 
+    /**
+     Passes every pair of components at the same index whose product may be non-zero to an action, in
+     increasing order of index, skipping the zeros of sparse vectors.
+     @param other the other vector, whose components are passed second
+     @param action the action receiving each pair of components
+     @throws IllegalArgumentException if the dimensions of this vector and the given vector are different
+     */
+    void forEachPair(VectorType other, BiConsumer<Fraction, Fraction> action) throws IllegalArgumentException {
+        if (length != other.length) {
+            throw new IllegalArgumentException("Cannot compute dot product of vectors of different dimensions");
+        }
+        if (dimensions == null && other.dimensions == null) {
+            int a = 0;
+            int b = 0;
+            while (a < indices.length && b < other.indices.length) {
+                if (indices[a] < other.indices[b]) {
+                    a++;
+                } else if (indices[a] > other.indices[b]) {
+                    b++;
+                } else {
+                    action.accept(values[a++], other.values[b++]);
+                }
+            }
+        } else if (dimensions == null) {
+            for (int k = 0; k < indices.length; k++) {
+                action.accept(values[k], other.dimensions[indices[k]]);
+            }
+        } else if (other.dimensions == null) {
+            for (int k = 0; k < other.indices.length; k++) {
+                action.accept(dimensions[other.indices[k]], other.values[k]);
+            }
+        } else {
+            for (int i = 0; i < dimensions.length; i++) {
+                action.accept(dimensions[i], other.dimensions[i]);
+            }
+        }
+    }
+
     /**
      Returns a new vector where each dimension is multiplied by the given scalar.
      @param scalar the scalar value to distribute
      @return a new VectorType with each dimension multiplied by the scalar
      */
     public VectorType distributeScalar(Fraction scalar) {
+        if (dimensions == null) {
+            if (scalar.getNumerator() == 0) {
+                return new VectorType(length, new int[0], new Fraction[0], 0);
+            }
+            Fraction[] resultValues = new Fraction[values.length];
+            for (int k = 0; k < values.length; k++) {
+                resultValues[k] = values[k].multiply(scalar);
+            }
+            return new VectorType(length, indices, resultValues, resultValues.length);
+        }
         Fraction[] resultCoords = new Fraction[dimensions.length];
         for (int i = 0; i < dimensions.length; i++) {
             resultCoords[i] = dimensions[i].multiply(scalar);
@@ -137,6 +511,136 @@ class VectorType {
         return new VectorType(resultCoords);
     }
 
+    /**
+     Returns a new vector where a function is applied to each non-zero component. The function must map
+     zero to zero; components it maps to zero are dropped from sparse storage.
+     @param function the function to apply to each non-zero component
+     @return a new VectorType with the function applied
+     */
+    VectorType mapNonZero(UnaryOperator<Fraction> function) {
+        if (dimensions == null) {
+            Fraction[] resultValues = new Fraction[values.length];
+            for (int k = 0; k < values.length; k++) {
+                resultValues[k] = function.apply(values[k]);
+            }
+            return sparse(length, indices, resultValues);
+        }
+        Fraction[] resultCoords = new Fraction[dimensions.length];
+        for (int i = 0; i < dimensions.length; i++) {
+            resultCoords[i] = dimensions[i].getNumerator() == 0 ? dimensions[i] : function.apply(dimensions[i]);
+        }
+        return new VectorType(resultCoords);
+    }
+
+    /**
+     Returns a new vector where each dimension is replaced by its best approximation with a denominator
+     of at most maxDenominator.
+     @param maxDenominator the largest denominator allowed
+     @return a new VectorType with every denominator bounded
+     @throws IllegalArgumentException if maxDenominator is not positive
+     */
+    public VectorType approximate(int maxDenominator) throws IllegalArgumentException {
+        return mapNonZero(dimension -> dimension.approximate(maxDenominator));
+    }
+
+    /**
+     Computes the dot product of this vector with itself.
+     @return the square of the length of this vector
+     @throws ArithmeticException if the square of the length does not fit in a Fraction
+     */
+    public Fraction squaredNorm() {
+        BigInteger[] norm = exactDotProduct(this);
+        return Fraction.valueOf(norm[0], norm[1]);
+    }
+
+    /**
+     Two vectors are equal if they have the same number of dimensions and equal components, whether
+     they are stored densely or sparsely.
+     @param other the object to compare with
+     @return true if other is a VectorType with the same components
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof VectorType)) {
+            return false;
+        }
+        VectorType vector = (VectorType) other;
+        if (length != vector.length) {
+            return false;
+        }
+        if (dimensions != null && vector.dimensions != null) {
+            return Arrays.equals(dimensions, vector.dimensions);
+        }
+        return Arrays.equals(nonZeroIndices(), vector.nonZeroIndices())
+                && Arrays.equals(nonZeroValues(), vector.nonZeroValues());
+    }
+
+    /**
+     Hashes the non-zero components and their indices, so that equal vectors hash alike in either storage.
+     @return the hash code of this vector
+     */
+    @Override
+    public int hashCode() {
+        int hash = length;
+        if (dimensions == null) {
+            for (int k = 0; k < indices.length; k++) {
+                hash = 31 * (31 * hash + indices[k]) + values[k].hashCode();
+            }
+            return hash;
+        }
+        for (int i = 0; i < dimensions.length; i++) {
+            if (dimensions[i].getNumerator() != 0) {
+                hash = 31 * (31 * hash + i) + dimensions[i].hashCode();
+            }
+        }
+        return hash;
+    }
+
+    /**
+     Orders vectors lexicographically by their components, with a vector that is a prefix of another
+     ordered first. Sparse vectors are compared by walking their non-zero components only.
+     @param other the vector to compare with
+     @return a negative number, zero or a positive number as this vector orders before, equal to or after
+     the other
+     */
+    @Override
+    public int compareTo(VectorType other) {
+        int common = Math.min(length, other.length);
+        if (dimensions != null && other.dimensions != null) {
+            for (int i = 0; i < common; i++) {
+                int comparison = dimensions[i].compareTo(other.dimensions[i]);
+                if (comparison != 0) {
+                    return comparison;
+                }
+            }
+            return Integer.compare(length, other.length);
+        }
+        int[] leftIndices = nonZeroIndices();
+        Fraction[] leftValues = nonZeroValues();
+        int[] rightIndices = other.nonZeroIndices();
+        Fraction[] rightValues = other.nonZeroValues();
+        Fraction zero = new Fraction(0);
+        int a = 0;
+        int b = 0;
+        // the first index where the vectors differ is the first non-zero index of either one that does not match
+        while (a < leftIndices.length || b < rightIndices.length) {
+            int left = a < leftIndices.length ? leftIndices[a] : Integer.MAX_VALUE;
+            int right = b < rightIndices.length ? rightIndices[b] : Integer.MAX_VALUE;
+            int index = Math.min(left, right);
+            if (index >= common) {
+                break;
+            }
+            int comparison = (left == index ? leftValues[a++] : zero).compareTo(right == index ? rightValues[b++] : zero);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, other.length);
+    }
+
     /**
      Returns a string representation of this vector in the format "(d1, d2, ..., dn)",
      where d1, d2, ..., dn are the coordinates of the vector.
@@ -144,6 +648,7 @@ class VectorType {
      */
 
     public String toString() {
+        Fraction[] dimensions = toArray();
         StringBuilder sb = new StringBuilder("(");
         for (int i = 0; i < dimensions.length; i++) {
             if (i > 0) {
@@ -155,6 +660,22 @@ class VectorType {
         return sb.toString();
     }
 
+    /**
+     Returns a string representation of this vector in the sparse format "(n; i: a, j: b, ...)", listing
+     only the non-zero components. Equal vectors have equal sparse strings whichever way they are stored.
+     @return a sparse string representation of this vector
+     */
+    public String toSparseString() {
+        int[] nonZeroIndices = nonZeroIndices();
+        Fraction[] nonZeroValues = nonZeroValues();
+        StringBuilder sb = new StringBuilder("(").append(length).append(";");
+        for (int k = 0; k < nonZeroIndices.length; k++) {
+            sb.append(k > 0 ? ", " : " ").append(nonZeroIndices[k]).append(": ").append(nonZeroValues[k]);
+        }
+        sb.append(")");
+        return sb.toString();
+    }
+
     private static void test(){
         VectorType a = new VectorType(new Fraction(2),new Fraction(2) ,new Fraction(-8), new Fraction(4), new Fraction(5));
         VectorType b = new VectorType(new Fraction(3),new Fraction(3) ,new Fraction(4), new Fraction(3));
@@ -166,6 +687,28 @@ class VectorType {
         System.out.println(VectorType.valueOf("(2, 43, 4, 22)"));
         System.out.println(formatVector(3));
 
+        VectorType s = VectorType.valueOf("(10000; 3: 1/2, 17: -4, 9999: 2)");
+        VectorType t = VectorType.valueOf("(10000; 17: 4, 200: 1 1/3, 9999: 3)");
+        System.out.println(s.isSparse()); // true
+        System.out.println(s.add(t).toSparseString()); // (10000; 3: 1/2, 200: 1 1/3, 9999: 5)
+        System.out.println(s.subtract(s).toSparseString()); // (10000;)
+        System.out.println(s.dotProduct(t)); // -10
+        System.out.println(s.distributeScalar(new Fraction(-2)).toSparseString()); // (10000; 3: -1, 17: 8, 9999: -4)
+        System.out.println(VectorType.valueOf("(4; 1: 2)")); // (0, 2, 0, 0)
+        System.out.println(VectorType.valueOf("(4; 1: 2)").isSparse()); // false
+
+        VectorType sparse = VectorType.valueOf("(100; 5: 1/2)");
+        Fraction[] dense = new Fraction[100];
+        Arrays.fill(dense, new Fraction(0));
+        dense[5] = new Fraction(2, 4);
+        System.out.println(sparse.equals(new VectorType(dense.clone()))); // true
+        dense[40] = new Fraction(1);
+        dense[41] = new Fraction(1);
+        System.out.println(new VectorType(dense).compareTo(sparse)); // 1
+        System.out.println(VectorType.valueOf("(1, 2)").compareTo(VectorType.valueOf("(1, 2, 0)"))); // -1
+        System.out.println(VectorType.valueOf("(1, -3)").compareTo(VectorType.valueOf("(1, 1/2)"))); // -1
+        System.out.println(VectorType.valueOf("(1, 2/4)").hashCode() == VectorType.valueOf("(1, 1/2)").hashCode()); // true
+
     }
     public static void main(String[] args) {
         test();